@@ -0,0 +1,68 @@
+package com.dola.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (baseline vs current)
+ *
+ *   java -cp target/benchmarks.jar com.dola.benchmarks.BaselineComparator baseline.json jmh-result.json [threshold%]
+ *
+ * Prints the relative change of every benchmark/param combination and exits with 1
+ * when any score regressed by more than the threshold (default 10%).
+ * Works for time-per-op modes (lower is better) and throughput (higher is better).
+ */
+public final class BaselineComparator {
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        boolean regressed = false;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %12.3f %-8s (new)%n", entry.getKey(), afterScore, unit);
+                continue;
+            }
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = (afterScore - beforeScore) / beforeScore * 100.0;
+            double worse = higherIsBetter ? -change : change;
+            String verdict = worse > threshold ? "REGRESSED" : worse < -threshold ? "improved" : "";
+            regressed |= worse > threshold;
+            System.out.printf("%-90s %12.3f -> %12.3f %-8s %+7.1f%% %s%n",
+                    entry.getKey(), beforeScore, afterScore, unit, change, verdict);
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            for (Map.Entry<String, JsonNode> param : result.path("params").properties()) {
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dola.benchmarks;
+
+import com.dola.events.OrderCreatedEvent;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderCreatedEvent through the serializers that the two KafkaConfig classes actually build
+ * (order-service producer side, notification-service consumer side)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KafkaEventSerializationBenchmark {
+
+    private static final String TOPIC = "order-events";
+
+    @Param({"binary", "json"})
+    public String format;
+
+    private OrderCreatedEvent event;
+    private Serializer<OrderCreatedEvent> serializer;
+    private Deserializer<OrderCreatedEvent> deserializer;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        try (BenchmarkBeans beans = new BenchmarkBeans(Map.of(
+                "spring.kafka.bootstrap-servers", "localhost:9092",
+                "spring.kafka.consumer.group-id", "benchmark",
+                "order.events.format", format))) {
+            ProducerFactory<String, OrderCreatedEvent> producerFactory =
+                    beans.create(com.dola.orderservice.config.KafkaConfig.class).producerFactory();
+            serializer = producerFactory.getValueSerializer();
+            ConsumerFactory<String, OrderCreatedEvent> consumerFactory =
+                    beans.create(com.dola.notificationservice.config.KafkaConfig.class).consumerFactory();
+            deserializer = consumerFactory.getValueDeserializer();
+        }
+
+        event = new OrderCreatedEvent(1_234_567L, 42_000L, "Wireless Noise Cancelling Headphones",
+                249.99, 499.98, "PENDING");
+        payload = serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent deserialize() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+}
@@ -0,0 +1,96 @@
+package com.dola.benchmarks;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.delivery.NotificationDispatcher;
+import com.dola.notificationservice.delivery.StubNotificationProvider;
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.entities.NotificationChannel;
+import com.dola.notificationservice.repositories.NotificationRepository;
+import com.dola.notificationservice.services.NotificationService;
+import com.dola.notificationservice.templates.NotificationTemplateEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotificationService.sendOrderNotification(s) with an in-memory repository stub,
+ * i.e. template rendering, entity creation and hand-off to the delivery queues (zero-latency
+ * stub providers) without the database round trip.
+ * sendOrderNotifications handles one listener batch of BATCH_SIZE events.
+ * channels is EMAIL alone or all channels, to show the per-channel cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationMessageBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"EMAIL", "EMAIL,SMS,PUSH"})
+    public String channels;
+
+    private NotificationService notificationService;
+    private BenchmarkBeans beans;
+    private long orderId;
+    private List<OrderCreatedEvent> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationRepository repository = (NotificationRepository) Proxy.newProxyInstance(
+                NotificationRepository.class.getClassLoader(),
+                new Class<?>[]{NotificationRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save") || method.getName().equals("saveAll")) {
+                        return args[0];
+                    }
+                    if (method.getName().equals("updateStatus")) {
+                        return 0;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        // Queues large enough that the benchmark never measures a full queue
+        beans = new BenchmarkBeans(Map.of(
+                "notification.channels", channels,
+                "notification.delivery.email.queue-capacity", "1000000",
+                "notification.delivery.sms.queue-capacity", "1000000",
+                "notification.delivery.push.queue-capacity", "1000000"));
+        beans.register("notificationRepository", repository);
+        beans.register("emailProvider", new StubNotificationProvider(NotificationChannel.EMAIL, 100, 0, 0));
+        beans.register("smsProvider", new StubNotificationProvider(NotificationChannel.SMS, 1, 0, 0));
+        beans.register("pushProvider", new StubNotificationProvider(NotificationChannel.PUSH, 500, 0, 0));
+        beans.create(NotificationTemplateEngine.class);
+        beans.create(NotificationDispatcher.class);
+        notificationService = beans.create(NotificationService.class);
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new OrderCreatedEvent((long) i, 42L, "Wireless Noise Cancelling Headphones",
+                    249.99, 249.99, "PENDING"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        beans.close();
+    }
+
+    @Benchmark
+    public List<Notification> sendOrderNotification() {
+        orderId++;
+        return notificationService.sendOrderNotification(new OrderCreatedEvent(orderId, 42L,
+                "Wireless Noise Cancelling Headphones", 249.99, 249.99, "PENDING"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Notification> sendOrderNotifications() {
+        return notificationService.sendOrderNotifications(batch);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dola.benchmarks;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.events.OrderCreatedEventDeserializer;
+import com.dola.events.OrderCreatedEventSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderCreatedEvent wire formats: binary codec vs the JSON fallback
+ * Reports ns per encode/decode; bytes per event are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderCreatedEventCodecBenchmark {
+
+    private static final String TOPIC = "order-events";
+
+    @Param({"binary", "json"})
+    public String format;
+
+    private OrderCreatedEvent event;
+    private OrderCreatedEventSerializer serializer;
+    private OrderCreatedEventDeserializer deserializer;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        event = new OrderCreatedEvent(1_234_567L, 42_000L, "Wireless Noise Cancelling Headphones",
+                249.99, 499.98, "PENDING");
+        serializer = new OrderCreatedEventSerializer(format);
+        deserializer = new OrderCreatedEventDeserializer();
+        encoded = serializer.serialize(TOPIC, event);
+        System.out.println();
+        System.out.println("# OrderCreatedEvent " + format + " size: " + encoded.length + " bytes/event");
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent decode() {
+        return deserializer.deserialize(TOPIC, encoded);
+    }
+}
@@ -0,0 +1,46 @@
+package com.dola.benchmarks;
+
+import com.dola.orderservice.entities.Order;
+import com.dola.paging.CursorPage;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one page of orders to JSON the way GET /orders does
+ * (Spring Boot 4 MVC serializes responses with Jackson 3); size is the page limit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderListRenderingBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private JsonMapper jsonMapper;
+    private CursorPage<Order> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        List<Order> orders = new ArrayList<>(size + 1);
+        for (int i = 0; i <= size; i++) {
+            Order order = new Order(1000L + i % 50, "Product " + i, 19.99 + i, 39.98 + i, "PENDING");
+            order.setId((long) i + 1);
+            orders.add(order);
+        }
+        page = CursorPage.of(orders, size, Order::getId);
+    }
+
+    @Benchmark
+    public byte[] renderOrders() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+}
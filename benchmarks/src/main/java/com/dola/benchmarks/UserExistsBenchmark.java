@@ -0,0 +1,91 @@
+package com.dola.benchmarks;
+
+import com.dola.orderservice.clients.UserExistenceCache;
+import com.dola.orderservice.clients.UserServiceClient;
+import com.dola.orderservice.config.HttpClientConfig;
+import com.dola.orderservice.metrics.OrderMetrics;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserServiceClient.userExists against a local stub of GET /users/{id}
+ * cacheEnabled=false measures the full HTTP path (pooled client, retry wrapper, breaker);
+ * cacheEnabled=true measures the hot-user path served from UserExistenceCache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserExistsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private HttpServer server;
+    private BenchmarkBeans beans;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private UserServiceClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] body = "{\"id\":1,\"name\":\"Jane\",\"email\":\"jane@example.com\"}".getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/users/", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                // Existence check: status only, like user-service's HEAD /users/{id}
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        beans = new BenchmarkBeans(Map.ofEntries(
+                Map.entry("user.service.url", "http://127.0.0.1:" + server.getAddress().getPort()),
+                Map.entry("user.service.cache.enabled", cacheEnabled),
+                Map.entry("user.service.cache.max-size", 10_000),
+                Map.entry("user.service.http.max-total", 20),
+                Map.entry("user.service.http.max-per-route", 20)));
+        HttpClientConfig httpClientConfig = beans.create(HttpClientConfig.class);
+        connectionManager = httpClientConfig.userServiceConnectionManager();
+        httpClient = httpClientConfig.userServiceHttpClient(connectionManager);
+        beans.register("restTemplate", httpClientConfig.restTemplate(httpClient));
+        beans.register("meterRegistry", new SimpleMeterRegistry());
+        beans.create(OrderMetrics.class);
+        beans.create(UserExistenceCache.class);
+        client = beans.create(UserServiceClient.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        beans.close();
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public boolean userExists() {
+        return client.userExists(42L);
+    }
+}
@@ -0,0 +1,40 @@
+package com.dola.notificationservice.config;
+
+import com.dola.notificationservice.delivery.NotificationProvider;
+import com.dola.notificationservice.delivery.StubNotificationProvider;
+import com.dola.notificationservice.entities.NotificationChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Delivery providers, one per channel (see NotificationDispatcher)
+ * Only the local stub exists so far; its batch sizes mirror typical providers:
+ * bulk mail APIs, one SMS per request, multicast push.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.delivery.provider", havingValue = "stub", matchIfMissing = true)
+public class DeliveryConfig {
+
+    @Value("${notification.delivery.stub.latency-ms:50}")
+    private long latencyMs;
+
+    @Value("${notification.delivery.stub.error-rate:0.0}")
+    private double errorRate;
+
+    @Bean
+    public NotificationProvider emailProvider() {
+        return new StubNotificationProvider(NotificationChannel.EMAIL, 100, latencyMs, errorRate);
+    }
+
+    @Bean
+    public NotificationProvider smsProvider() {
+        return new StubNotificationProvider(NotificationChannel.SMS, 1, latencyMs, errorRate);
+    }
+
+    @Bean
+    public NotificationProvider pushProvider() {
+        return new StubNotificationProvider(NotificationChannel.PUSH, 500, latencyMs, errorRate);
+    }
+}
@@ -1,57 +1,184 @@
 package com.dola.notificationservice.config;
 
-import com.dola.notificationservice.events.OrderCreatedEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.dola.events.OrderCreatedEvent;
+import com.dola.events.OrderCreatedEventDeserializer;
+import com.dola.events.OrderCreatedEventSerializer;
+import com.dola.notificationservice.events.NotificationRetryRouter;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @EnableKafka
 @Configuration
 public class KafkaConfig {
 
+    public static final String DEAD_LETTER_TOPIC = "order-events.DLT";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${notification.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${notification.consumer.fetch-max-wait-ms:100}")
+    private int fetchMaxWaitMs;
+
+    @Value("${notification.consumer.concurrency:1}")
+    private int concurrency;
+
     @Bean
     public ConsumerFactory<String, OrderCreatedEvent> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Offsets are committed by the container after each batch is stored
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+
+        // Reads the compact binary format and falls back to JSON from older producers.
+        // A record that cannot be decoded arrives as a null value instead of failing the poll.
+        ErrorHandlingDeserializer<OrderCreatedEvent> eventDeserializer =
+                new ErrorHandlingDeserializer<>(new OrderCreatedEventDeserializer());
+
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), eventDeserializer);
+    }
+
+    /**
+     * Batch listener container factory (notification.consumer.mode=batch, the default)
+     * Each poll (up to max-poll-records) is handed to OrderEventListener as one list and
+     * stored with one JDBC batch. A record the listener reports through
+     * BatchListenerFailedException is handed to the retry topics right away; the records
+     * before it are committed and the ones after it redelivered.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> kafkaListenerContainerFactory(
+            DefaultErrorHandler errorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory = newContainerFactory();
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    /**
+     * Record listener container factory for ParallelOrderEventListener (notification.consumer.mode=parallel)
+     * The listener hands each record to a worker and returns, so acknowledgments arrive out of
+     * order. With asyncAcks the container only commits up to the highest contiguous acknowledged
+     * offset of each partition, so a restart never skips an unfinished record.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> parallelKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory = newContainerFactory();
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    /**
+     * Record listener container factory for the retry topics (NotificationRetryConsumer)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> retryKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory = newContainerFactory();
+        factory.setConcurrency(1);
+        return factory;
+    }
 
-        JsonDeserializer<OrderCreatedEvent> jsonDeserializer = new JsonDeserializer<>(OrderCreatedEvent.class, objectMapper);
-        jsonDeserializer.setRemoveTypeHeaders(false);
-        jsonDeserializer.addTrustedPackages("*");
-        jsonDeserializer.setUseTypeMapperForKey(true);
+    /**
+     * Publishes a record that exhausted its retries (or can never succeed) to order-events.DLT
+     * Partition -1 lets Kafka pick the partition, so the DLT does not need as many
+     * partitions as order-events
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterRecoverer() {
+        return new DeadLetterPublishingRecoverer(deadLetterTemplate(),
+                (record, ex) -> new TopicPartition(DEAD_LETTER_TOPIC, -1));
+    }
 
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
+    /**
+     * No in-place retries on the main consumer: a failed record goes to the first retry topic
+     * immediately, so a bad downstream never stalls fresh order events
+     */
+    @Bean
+    public DefaultErrorHandler errorHandler(NotificationRetryRouter retryRouter) {
+        return new DefaultErrorHandler(retryRouter, new FixedBackOff(0, 0));
     }
 
+    /**
+     * Producer for order-events.DLT
+     * Undecodable records are forwarded with their original bytes, decoded ones re-encoded
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> kafkaListenerContainerFactory() {
+    public KafkaTemplate<String, Object> deadLetterTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(OrderCreatedEvent.class, new OrderCreatedEventSerializer(OrderCreatedEventSerializer.FORMAT_BINARY));
+
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props,
+                new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers)));
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics(NotificationRetryRouter retryRouter) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (int tier = 1; tier <= retryRouter.getTierCount(); tier++) {
+            topics.add(TopicBuilder.name(NotificationRetryRouter.topic(tier)).partitions(1).replicas(1).build());
+        }
+        topics.add(TopicBuilder.name(DEAD_LETTER_TOPIC).partitions(1).replicas(1).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(new NewTopic[0]));
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> newContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // These factories are built by hand, so Boot's virtual-thread setting has to be applied here
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
         return factory;
     }
 }
@@ -1,9 +1,29 @@
 package com.dola.notificationservice.controllers;
 
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.dto.RetrySweepResult;
 import com.dola.notificationservice.entities.Notification;
 import com.dola.notificationservice.repositories.NotificationRepository;
+import com.dola.notificationservice.services.NotificationRetryService;
 import com.dola.notificationservice.services.NotificationService;
+import com.dola.paging.CursorPage;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/notifications")
@@ -11,11 +31,29 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final NotificationRepository notificationRepository;
+    private final NotificationRetryService notificationRetryService;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final EntityManager entityManager;
+
+    @Value("${notification.list.default-limit:100}")
+    private int defaultListLimit;
+
+    @Value("${notification.list.max-limit:1000}")
+    private int maxListLimit;
 
     public NotificationController(NotificationService notificationService,
-                                  NotificationRepository notificationRepository) {
+                                  NotificationRepository notificationRepository,
+                                  NotificationRetryService notificationRetryService,
+                                  TransactionTemplate transactionTemplate,
+                                  JsonMapper jsonMapper,
+                                  EntityManager entityManager) {
         this.notificationService = notificationService;
         this.notificationRepository = notificationRepository;
+        this.notificationRetryService = notificationRetryService;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -28,32 +66,76 @@ public class NotificationController {
     }
 
     /**
-     * Get all notifications
+     * One page of notifications in id order
+     * limit defaults to notification.list.default-limit and is capped at notification.list.max-limit;
+     * pass the returned nextCursor as ?cursor= to get the next page
      */
     @GetMapping
-    public Iterable<Notification> getAllNotifications() {
-        return notificationRepository.findAll();
+    public CursorPage<Notification> getAllNotifications(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? defaultListLimit : Math.max(1, Math.min(limit, maxListLimit));
+        List<Notification> rows = notificationRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Notification::getId);
+    }
+
+    /**
+     * All notifications (after ?cursor= if given) as newline-delimited JSON
+     * Rows are read with a JDBC fetch size and written as they arrive, so memory stays
+     * flat however large the table is. Selected with ?format=ndjson.
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamNotifications(@RequestParam(required = false) String cursor) {
+        long afterId = afterId(cursor);
+        StreamingResponseBody body = out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Notification> notifications = notificationRepository.streamByIdGreaterThan(afterId)) {
+                Iterator<Notification> iterator = notifications.iterator();
+                while (iterator.hasNext()) {
+                    Notification notification = iterator.next();
+                    out.write(jsonMapper.writeValueAsBytes(notification));
+                    out.write('\n');
+                    // Nothing is kept in the persistence context, so it does not grow with the table
+                    entityManager.detach(notification);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
      * Send order notification
      * In Phase 4, this will be triggered automatically by an event
      * For now, order-service can call this endpoint
+     * Returns one notification per configured channel
      */
     @PostMapping("/order")
-    public Notification sendOrderNotification(
+    public List<Notification> sendOrderNotification(
             @RequestParam Long orderId,
             @RequestParam Long userId,
             @RequestParam String productName) {
-        return notificationService.sendOrderNotification(orderId, userId, productName);
+        OrderCreatedEvent event = new OrderCreatedEvent(orderId, userId, productName, null, null, null);
+        return notificationService.sendOrderNotification(event);
     }
 
     /**
      * Retry failed notifications
+     * Runs one bounded sweep right away and returns its counts;
+     * 409 if a sweep is already running
      */
     @PostMapping("/retry")
-    public String retryFailedNotifications() {
-        notificationService.retryFailedNotifications();
-        return "Retry process started";
+    public ResponseEntity<RetrySweepResult> retryFailedNotifications() {
+        return notificationRetryService.retryFailedNotifications()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    private static long afterId(String cursor) {
+        try {
+            return CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
-}
\ No newline at end of file
+}
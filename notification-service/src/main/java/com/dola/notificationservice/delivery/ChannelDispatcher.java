@@ -0,0 +1,141 @@
+package com.dola.notificationservice.delivery;
+
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.entities.NotificationChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue and worker threads in front of one channel's provider
+ *
+ * Each worker takes what is queued, up to the provider's batch size, waits for the
+ * rate limiter and makes one provider call for the whole batch.
+ */
+class ChannelDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelDispatcher.class);
+
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    private final NotificationProvider provider;
+    private final BlockingQueue<Notification> queue;
+    private final TokenBucket rateLimiter;
+    private final DeliveryStatusWriter statusWriter;
+    private final int batchSize;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    final LongAdder sent = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder providerCalls = new LongAdder();
+    final LongAdder providerNanos = new LongAdder();
+
+    ChannelDispatcher(NotificationProvider provider, int queueCapacity, TokenBucket rateLimiter,
+                      DeliveryStatusWriter statusWriter) {
+        this.provider = provider;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.rateLimiter = rateLimiter;
+        this.statusWriter = statusWriter;
+        this.batchSize = Math.max(1, provider.getMaxBatchSize());
+    }
+
+    void start(int workerCount, Thread.Builder threadBuilder) {
+        String prefix = "delivery-" + getChannel().name().toLowerCase() + "-";
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadBuilder.name(prefix + i).unstarted(this::run);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    NotificationChannel getChannel() {
+        return provider.getChannel();
+    }
+
+    /**
+     * Queue a notification; false when the queue is full
+     */
+    boolean offer(Notification notification) {
+        if (running && queue.offer(notification)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stop taking new work, deliver what is queued and wait up to timeoutMs for the workers
+     * Anything still queued after that stays PENDING for the retry sweep.
+     */
+    void shutdown(long timeoutMs) throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (Thread worker : workers) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs > 0) {
+                worker.join(remainingMs);
+            }
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Notification first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                rateLimiter.acquire(batch.size());
+                deliver(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Shutdown timed out - undelivered notifications stay PENDING
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(List<Notification> batch) {
+        long start = System.nanoTime();
+        List<Notification> rejectedByProvider;
+        try {
+            rejectedByProvider = provider.send(batch);
+        } catch (RuntimeException e) {
+            log.warn("{} provider call for {} notifications failed - {}", getChannel(), batch.size(), e.getMessage());
+            rejectedByProvider = batch;
+        }
+        providerNanos.add(System.nanoTime() - start);
+        providerCalls.increment();
+
+        Set<Notification> failedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        failedSet.addAll(rejectedByProvider);
+        for (Notification notification : batch) {
+            if (failedSet.contains(notification)) {
+                failed.increment();
+                statusWriter.failed(notification.getId());
+            } else {
+                sent.increment();
+                statusWriter.sent(notification.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.dola.notificationservice.delivery;
+
+import com.dola.notificationservice.repositories.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes delivery outcomes back to the notifications table in batches
+ *
+ * Outcomes are collected for up to flushIntervalMs (or maxBatchSize rows) and written
+ * with one UPDATE per status. If a write fails the rows stay PENDING and the retry
+ * sweep delivers them again, so delivery is at-least-once.
+ */
+class DeliveryStatusWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryStatusWriter.class);
+
+    private final NotificationRepository notificationRepository;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<StatusUpdate> updates = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    DeliveryStatusWriter(NotificationRepository notificationRepository, int maxBatchSize, long flushIntervalMs,
+                         Thread.Builder threadBuilder) {
+        this.notificationRepository = notificationRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.thread = threadBuilder.name("delivery-status-writer").unstarted(this::run);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void sent(Long notificationId) {
+        updates.add(new StatusUpdate(notificationId, true));
+    }
+
+    void failed(Long notificationId) {
+        updates.add(new StatusUpdate(notificationId, false));
+    }
+
+    int getPendingCount() {
+        return updates.size();
+    }
+
+    /**
+     * Flush what is queued and stop; call after the channel workers have stopped
+     */
+    void shutdown(long timeoutMs) throws InterruptedException {
+        running = false;
+        thread.join(timeoutMs);
+    }
+
+    private void run() {
+        List<StatusUpdate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !updates.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<StatusUpdate> batch) throws InterruptedException {
+        StatusUpdate first = updates.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < maxBatchSize && running) {
+            updates.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            StatusUpdate next = updates.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<StatusUpdate> batch) {
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>();
+        for (StatusUpdate update : batch) {
+            (update.sent() ? sentIds : failedIds).add(update.notificationId());
+        }
+        try {
+            if (!sentIds.isEmpty()) {
+                notificationRepository.updateStatus(sentIds, "SENT", LocalDateTime.now());
+            }
+            if (!failedIds.isEmpty()) {
+                notificationRepository.updateStatus(failedIds, "FAILED", null);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Writing {} delivery outcomes failed, the notifications stay PENDING for the retry sweep - {}",
+                    batch.size(), e.getMessage());
+        }
+    }
+
+    private record StatusUpdate(Long notificationId, boolean sent) {
+    }
+}
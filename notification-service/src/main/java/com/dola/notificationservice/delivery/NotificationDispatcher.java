@@ -0,0 +1,143 @@
+package com.dola.notificationservice.delivery;
+
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.entities.NotificationChannel;
+import com.dola.notificationservice.repositories.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers stored notifications off the Kafka listener threads
+ *
+ * Every channel with a NotificationProvider gets its own bounded queue, workers and
+ * token-bucket rate limit, configured under notification.delivery.{channel}.*:
+ * queue-capacity, workers, rate-per-second and burst. Outcomes are written back by
+ * DeliveryStatusWriter in batches (PENDING -> SENT / FAILED).
+ *
+ * A notification that cannot be queued (queue full, no provider, shutting down) is left
+ * PENDING; NotificationRetryService picks it up after pending-grace-seconds.
+ */
+@Component
+public class NotificationDispatcher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final Map<NotificationChannel, ChannelDispatcher> channels = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Integer> workerCounts = new EnumMap<>(NotificationChannel.class);
+    private final DeliveryStatusWriter statusWriter;
+    private final boolean virtualThreadsEnabled;
+    private final long shutdownTimeoutMs;
+    private final LongAdder unroutable = new LongAdder();
+
+    public NotificationDispatcher(List<NotificationProvider> providers,
+                                  NotificationRepository notificationRepository,
+                                  Environment environment,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+                                  @Value("${notification.delivery.status.batch-size:500}") int statusBatchSize,
+                                  @Value("${notification.delivery.status.flush-interval-ms:200}") long statusFlushIntervalMs,
+                                  @Value("${notification.delivery.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.statusWriter = new DeliveryStatusWriter(notificationRepository, statusBatchSize, statusFlushIntervalMs,
+                threadBuilder());
+        for (NotificationProvider provider : providers) {
+            NotificationChannel channel = provider.getChannel();
+            String prefix = "notification.delivery." + channel.name().toLowerCase(Locale.ROOT) + ".";
+            int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, 10_000);
+            double ratePerSecond = environment.getProperty(prefix + "rate-per-second", Double.class, 0.0);
+            double burst = environment.getProperty(prefix + "burst", Double.class, Math.max(ratePerSecond, 1));
+            workerCounts.put(channel, environment.getProperty(prefix + "workers", Integer.class, 2));
+            channels.put(channel, new ChannelDispatcher(provider, queueCapacity,
+                    new TokenBucket(ratePerSecond, burst), statusWriter));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        statusWriter.start();
+        channels.forEach((channel, dispatcher) -> dispatcher.start(workerCounts.get(channel), threadBuilder()));
+        log.info("Notification delivery started for channels {}", channels.keySet());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (ChannelDispatcher dispatcher : channels.values()) {
+            dispatcher.shutdown(shutdownTimeoutMs);
+        }
+        statusWriter.shutdown(shutdownTimeoutMs);
+    }
+
+    /**
+     * Queue stored (PENDING) notifications for delivery
+     * Returns how many were queued; the rest stay PENDING for the retry sweep.
+     */
+    public int dispatch(List<Notification> notifications) {
+        int queued = 0;
+        for (Notification notification : notifications) {
+            ChannelDispatcher dispatcher = channels.get(NotificationChannel.valueOf(notification.getType()));
+            if (dispatcher == null) {
+                unroutable.increment();
+            } else if (dispatcher.offer(notification)) {
+                queued++;
+            }
+        }
+        if (queued < notifications.size()) {
+            log.warn("{} of {} notifications could not be queued for delivery and stay PENDING",
+                    notifications.size() - queued, notifications.size());
+        }
+        return queued;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        channels.forEach((channel, dispatcher) -> {
+            String tag = channel.name();
+            Gauge.builder("notifications.delivery.queue.size", dispatcher, ChannelDispatcher::getQueueSize)
+                    .description("Notifications waiting for a delivery worker")
+                    .tag("channel", tag)
+                    .register(registry);
+            FunctionCounter.builder("notifications.delivery", dispatcher.sent, LongAdder::sum)
+                    .description("Delivery outcomes; rejected = not queued, left PENDING for the retry sweep")
+                    .tags("channel", tag, "result", "sent")
+                    .register(registry);
+            FunctionCounter.builder("notifications.delivery", dispatcher.failed, LongAdder::sum)
+                    .tags("channel", tag, "result", "failed")
+                    .register(registry);
+            FunctionCounter.builder("notifications.delivery", dispatcher.rejected, LongAdder::sum)
+                    .tags("channel", tag, "result", "rejected")
+                    .register(registry);
+            FunctionTimer.builder("notifications.delivery.provider.calls", dispatcher,
+                            d -> d.providerCalls.sum(), d -> d.providerNanos.sum(), TimeUnit.NANOSECONDS)
+                    .description("Provider send calls, one per batch")
+                    .tag("channel", tag)
+                    .register(registry);
+        });
+        FunctionCounter.builder("notifications.delivery.unroutable", unroutable, LongAdder::sum)
+                .description("Notifications for a channel without a provider")
+                .register(registry);
+        Gauge.builder("notifications.delivery.status.pending", statusWriter, DeliveryStatusWriter::getPendingCount)
+                .description("Delivery outcomes not yet written back")
+                .register(registry);
+    }
+
+    private Thread.Builder threadBuilder() {
+        return virtualThreadsEnabled ? Thread.ofVirtual() : Thread.ofPlatform().daemon(false);
+    }
+}
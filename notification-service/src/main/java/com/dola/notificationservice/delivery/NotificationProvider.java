@@ -0,0 +1,26 @@
+package com.dola.notificationservice.delivery;
+
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.entities.NotificationChannel;
+
+import java.util.List;
+
+/**
+ * Sends notifications of one channel to an external provider (mail relay, SMS gateway, push service)
+ */
+public interface NotificationProvider {
+
+    NotificationChannel getChannel();
+
+    /**
+     * Most notifications one send call accepts; 1 for providers without bulk sends
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Send up to getMaxBatchSize() notifications in one call
+     * Returns the notifications the provider rejected (empty when all were accepted);
+     * an exception fails the whole batch.
+     */
+    List<Notification> send(List<Notification> notifications);
+}
@@ -0,0 +1,63 @@
+package com.dola.notificationservice.delivery;
+
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.entities.NotificationChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a real provider (notification.delivery.provider=stub)
+ * Every call takes latencyMs, whatever the batch size, and each notification fails
+ * with probability errorRate - enough to exercise queues, rate limits and retries.
+ */
+public class StubNotificationProvider implements NotificationProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(StubNotificationProvider.class);
+
+    private final NotificationChannel channel;
+    private final int maxBatchSize;
+    private final long latencyMs;
+    private final double errorRate;
+
+    public StubNotificationProvider(NotificationChannel channel, int maxBatchSize, long latencyMs, double errorRate) {
+        this.channel = channel;
+        this.maxBatchSize = maxBatchSize;
+        this.latencyMs = latencyMs;
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public List<Notification> send(List<Notification> notifications) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending " + channel + " notifications", e);
+            }
+        }
+        List<Notification> rejected = new ArrayList<>();
+        for (Notification notification : notifications) {
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                rejected.add(notification);
+            } else {
+                log.debug("{} delivered - To User: {}, Message: {}", channel, notification.getUserId(), notification.getMessage());
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dola.notificationservice.delivery;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket rate limiter: ratePerSecond tokens refill continuously up to burst
+ *
+ * A caller takes its tokens right away and then sleeps off any deficit outside the
+ * lock, so a batch larger than the burst is still let through, at the configured rate.
+ * A rate of 0 or less disables the limit.
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, double burst) {
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        if (tokensPerNano <= 0) {
+            return;
+        }
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            tokens -= permits;
+            waitNanos = tokens < 0 ? (long) (-tokens / tokensPerNano) : 0;
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.dola.notificationservice.dto;
+
+/**
+ * Response body for POST /notifications/retry
+ * complete is false when the sweep stopped at its batch limit with rows left over.
+ * sent counts notifications handed back to the delivery queues, failed the ones that
+ * could not be queued (they stay PENDING for the next sweep).
+ */
+public class RetrySweepResult {
+
+    private int batches;
+    private int scanned;
+    private int sent;
+    private int failed;
+    private boolean complete;
+
+    public RetrySweepResult() {
+    }
+
+    public RetrySweepResult(int batches, int scanned, int sent, int failed, boolean complete) {
+        this.batches = batches;
+        this.scanned = scanned;
+        this.sent = sent;
+        this.failed = failed;
+        this.complete = complete;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public int getScanned() {
+        return scanned;
+    }
+
+    public int getSent() {
+        return sent;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -4,20 +4,37 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Retry sweep: WHERE status = ? AND id > ? ORDER BY id
+        @Index(name = "idx_notifications_status_id", columnList = "status, id")
+}, uniqueConstraints = {
+        // One notification per order and channel - the last line of defence against replays
+        @UniqueConstraint(name = Notification.UNIQUE_ORDER_TYPE, columnNames = {"orderId", "type"})
+})
 public class Notification {
+
+    public static final String UNIQUE_ORDER_TYPE = "uk_notifications_order_id_type";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
     private Long orderId;
     private Long userId;
+    private String subject; // EMAIL only
+    @Column(length = 1024)
     private String message;
-    private String type; // EMAIL, SMS, PUSH, etc.
+    private String type; // NotificationChannel: EMAIL, SMS, PUSH
     private String status; // PENDING, SENT, FAILED
     private LocalDateTime createdAt;
+    // Last time the notification was handed to the dispatcher (created, or re-queued by the retry sweep)
+    private LocalDateTime queuedAt;
     private LocalDateTime sentAt;
 
+    // Delivery attempts made by the retry sweep
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int retryCount;
+
     // Constructors
     public Notification() {
     }
@@ -29,6 +46,7 @@ public class Notification {
         this.type = type;
         this.status = status;
         this.createdAt = LocalDateTime.now();
+        this.queuedAt = createdAt;
     }
 
     // Getters and Setters
@@ -56,6 +74,14 @@ public class Notification {
         this.userId = userId;
     }
 
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -88,6 +114,14 @@ public class Notification {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getQueuedAt() {
+        return queuedAt;
+    }
+
+    public void setQueuedAt(LocalDateTime queuedAt) {
+        this.queuedAt = queuedAt;
+    }
+
     public LocalDateTime getSentAt() {
         return sentAt;
     }
@@ -95,4 +129,12 @@ public class Notification {
     public void setSentAt(LocalDateTime sentAt) {
         this.sentAt = sentAt;
     }
-}
\ No newline at end of file
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+}
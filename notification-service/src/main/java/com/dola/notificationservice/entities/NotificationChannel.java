@@ -0,0 +1,10 @@
+package com.dola.notificationservice.entities;
+
+/**
+ * Delivery channel of a notification, stored as Notification.type
+ */
+public enum NotificationChannel {
+    EMAIL,
+    SMS,
+    PUSH
+}
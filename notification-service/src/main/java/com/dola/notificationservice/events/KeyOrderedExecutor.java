@@ -0,0 +1,46 @@
+package com.dola.notificationservice.events;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker pool that keeps tasks with the same key in submission order
+ *
+ * Each key is hashed onto one of a fixed number of single-threaded lanes, so tasks
+ * for one key run one after another while different keys run in parallel.
+ */
+public class KeyOrderedExecutor {
+
+    private final ExecutorService[] lanes;
+
+    public KeyOrderedExecutor(int laneCount, String threadNamePrefix) {
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = threadNamePrefix + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> new Thread(r, threadName));
+        }
+    }
+
+    public void execute(Object key, Runnable task) {
+        lanes[Math.floorMod(Objects.hashCode(key), lanes.length)].execute(task);
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Stop accepting tasks and wait up to timeoutMs for the queued ones to finish
+     */
+    public void shutdown(long timeoutMs) throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.dola.notificationservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.services.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes the retry topics, one listener container per tier
+ *
+ * A record is processed once its tier delay has passed since it was forwarded. Until then
+ * it is nacked with the remaining time, which pauses only that tier's consumer (it keeps
+ * polling, so the group does not rebalance). The main order-events consumer is never held up.
+ */
+@Component
+public class NotificationRetryConsumer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetryConsumer.class);
+
+    private final ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> containerFactory;
+    private final NotificationRetryRouter retryRouter;
+    private final NotificationService notificationService;
+    private final OrderEventDeduplicator deduplicator;
+    private final List<ConcurrentMessageListenerContainer<String, OrderCreatedEvent>> containers = new ArrayList<>();
+
+    public NotificationRetryConsumer(
+            @Qualifier("retryKafkaListenerContainerFactory")
+            ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> containerFactory,
+            NotificationRetryRouter retryRouter,
+            NotificationService notificationService,
+            OrderEventDeduplicator deduplicator) {
+        this.containerFactory = containerFactory;
+        this.retryRouter = retryRouter;
+        this.notificationService = notificationService;
+        this.deduplicator = deduplicator;
+    }
+
+    @Override
+    public synchronized void start() {
+        for (int tier = 1; tier <= retryRouter.getTierCount(); tier++) {
+            int currentTier = tier;
+            ConcurrentMessageListenerContainer<String, OrderCreatedEvent> container =
+                    containerFactory.createContainer(NotificationRetryRouter.topic(tier));
+            container.setBeanName("notification-retry-" + tier);
+            container.setupMessageListener((AcknowledgingMessageListener<String, OrderCreatedEvent>)
+                    (record, acknowledgment) -> handle(currentTier, record, acknowledgment));
+            container.start();
+            containers.add(container);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+        containers.clear();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return !containers.isEmpty();
+    }
+
+    void handle(int tier, ConsumerRecord<String, OrderCreatedEvent> record, Acknowledgment acknowledgment) {
+        long remainingMs = record.timestamp() + retryRouter.getDelayMs(tier) - System.currentTimeMillis();
+        if (remainingMs > 0) {
+            // Records in a tier share one delay, so nothing behind this one is due earlier
+            acknowledgment.nack(Duration.ofMillis(remainingMs));
+            return;
+        }
+
+        OrderCreatedEvent event = record.value();
+        try {
+            notificationService.sendOrderNotification(event);
+            deduplicator.markProcessed(List.of(event));
+            log.info("Notification sent for Order ID: {} on retry {}", event.getOrderId(), tier);
+        } catch (Exception e) {
+            if (deduplicator.rejectedAsDuplicate(e)) {
+                // Already notified, e.g. the main consumer saw a replay of this event meanwhile
+                acknowledgment.acknowledge();
+                return;
+            }
+            try {
+                retryRouter.retryFailed(record, tier, e);
+            } catch (KafkaException forwardFailed) {
+                // Neither forwarded nor dead-lettered: keep it on this tier and try again after the tier delay
+                log.warn("Could not forward OrderCreatedEvent for Order ID: {} from retry {} - {}",
+                        event.getOrderId(), tier, forwardFailed.getMessage());
+                acknowledgment.nack(Duration.ofMillis(retryRouter.getDelayMs(tier)));
+                return;
+            }
+        }
+        acknowledgment.acknowledge();
+    }
+}
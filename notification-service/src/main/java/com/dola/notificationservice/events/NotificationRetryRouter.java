@@ -0,0 +1,105 @@
+package com.dola.notificationservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Routes OrderCreatedEvents that could not be processed through the retry topics
+ *
+ * order-events -> order-events.retry-1 -> ... -> order-events.retry-N -> order-events.DLT
+ *
+ * Tier i is consumed by NotificationRetryConsumer no earlier than initial-delay-ms * multiplier^(i-1)
+ * after the record was forwarded to it. Records that can never succeed (undecodable or
+ * without an orderId) go straight to the DLT.
+ */
+@Component
+public class NotificationRetryRouter implements ConsumerRecordRecoverer {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetryRouter.class);
+
+    public static final String RETRY_TOPIC_PREFIX = "order-events.retry-";
+
+    private final KafkaTemplate<String, Object> deadLetterTemplate;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final long[] delaysMs;
+    private final long sendTimeoutMs;
+
+    public NotificationRetryRouter(KafkaTemplate<String, Object> deadLetterTemplate,
+                                   DeadLetterPublishingRecoverer deadLetterRecoverer,
+                                   @Value("${notification.retry.tiers:3}") int tiers,
+                                   @Value("${notification.retry.initial-delay-ms:1000}") long initialDelayMs,
+                                   @Value("${notification.retry.multiplier:4.0}") double multiplier,
+                                   @Value("${notification.retry.max-delay-ms:60000}") long maxDelayMs,
+                                   @Value("${notification.retry.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.deadLetterTemplate = deadLetterTemplate;
+        this.deadLetterRecoverer = deadLetterRecoverer;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.delaysMs = new long[tiers];
+        double delay = initialDelayMs;
+        for (int i = 0; i < tiers; i++) {
+            delaysMs[i] = Math.min(maxDelayMs, (long) delay);
+            delay *= multiplier;
+        }
+    }
+
+    public static String topic(int tier) {
+        return RETRY_TOPIC_PREFIX + tier;
+    }
+
+    public int getTierCount() {
+        return delaysMs.length;
+    }
+
+    public long getDelayMs(int tier) {
+        return delaysMs[tier - 1];
+    }
+
+    /**
+     * A record failed on the main order-events consumer - send it to the first retry tier
+     */
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Exception exception) {
+        route(record, 1, exception);
+    }
+
+    /**
+     * A record failed again on retry tier - send it to the next tier, or to the DLT after the last one
+     */
+    public void retryFailed(ConsumerRecord<?, ?> record, int tier, Exception exception) {
+        route(record, tier + 1, exception);
+    }
+
+    private void route(ConsumerRecord<?, ?> record, int tier, Exception exception) {
+        if (tier > delaysMs.length || !(record.value() instanceof OrderCreatedEvent event) || event.getOrderId() == null) {
+            deadLetterRecoverer.accept(record, exception);
+            return;
+        }
+
+        // No explicit timestamp: the producer stamps the forward time, from which the tier delay is counted
+        ProducerRecord<String, Object> retry = new ProducerRecord<>(topic(tier), null,
+                record.key() == null ? null : record.key().toString(), event, record.headers());
+        try {
+            deadLetterTemplate.send(retry).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            log.info("OrderCreatedEvent for Order ID: {} scheduled for retry {} of {} - {}",
+                    event.getOrderId(), tier, delaysMs.length, exception.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while forwarding to " + topic(tier), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaException("Failed to forward OrderCreatedEvent to " + topic(tier), e);
+        }
+    }
+}
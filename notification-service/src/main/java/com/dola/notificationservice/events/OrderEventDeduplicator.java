@@ -0,0 +1,206 @@
+package com.dola.notificationservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.repositories.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Drops OrderCreatedEvents that were already turned into a notification
+ * (replays after a rebalance or an offset reset)
+ *
+ * A TimeWindowedBloomFilter of order ids answers "definitely new" for almost every
+ * fresh event, so those pass with no database call. Only Bloom hits are checked against
+ * the notifications table, in one query per batch, to tell real duplicates from false
+ * positives. Replays older than the window (or missed for any other reason) are still
+ * stopped by the unique constraint on (orderId, type).
+ */
+@Component
+public class OrderEventDeduplicator implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventDeduplicator.class);
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TimeWindowedBloomFilter filter;
+    private final boolean enabled;
+    private final Duration window;
+
+    private final AtomicLong passed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    public OrderEventDeduplicator(NotificationRepository notificationRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${notification.dedup.enabled:true}") boolean enabled,
+                                  @Value("${notification.dedup.expected-insertions:1000000}") long expectedInsertions,
+                                  @Value("${notification.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${notification.dedup.window:24h}") Duration window) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.window = window;
+        this.filter = new TimeWindowedBloomFilter(expectedInsertions, falsePositiveRate,
+                window.toMillis(), System::currentTimeMillis);
+    }
+
+    /**
+     * Seed the filter with the notifications created during the last window, so replays
+     * right after a restart are also caught without a database round trip per event.
+     * Runs before the listener containers start.
+     */
+    @PostConstruct
+    void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minus(window);
+        Long loaded = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<Long> orderIds = notificationRepository.streamOrderIdsCreatedSince(since)) {
+                Iterator<Long> iterator = orderIds.iterator();
+                while (iterator.hasNext()) {
+                    filter.put(key(iterator.next()));
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Dedup filter warmed up with {} order ids - {} bytes, {} hash functions",
+                loaded, filter.memoryBytes(), filter.getHashCount());
+    }
+
+    /**
+     * The events of a batch that have not been notified yet, in their original order
+     * Repeats inside the batch are dropped as well.
+     */
+    public List<OrderCreatedEvent> filterNew(List<OrderCreatedEvent> events) {
+        if (!enabled) {
+            return events;
+        }
+        Set<Long> maybeSeen = new HashSet<>();
+        for (OrderCreatedEvent event : events) {
+            if (filter.mightContain(key(event.getOrderId()))) {
+                maybeSeen.add(event.getOrderId());
+            }
+        }
+        Set<Long> stored = maybeSeen.isEmpty() ? Set.of() : new HashSet<>(
+                notificationRepository.findNotifiedOrderIds(maybeSeen));
+
+        List<OrderCreatedEvent> fresh = new ArrayList<>(events.size());
+        Set<Long> batchOrderIds = new HashSet<>();
+        for (OrderCreatedEvent event : events) {
+            Long orderId = event.getOrderId();
+            if (!batchOrderIds.add(orderId) || stored.contains(orderId)) {
+                duplicates.incrementAndGet();
+                continue;
+            }
+            if (maybeSeen.contains(orderId)) {
+                falsePositives.incrementAndGet();
+            }
+            passed.incrementAndGet();
+            fresh.add(event);
+        }
+        return fresh;
+    }
+
+    public boolean isDuplicate(OrderCreatedEvent event) {
+        return filterNew(List.of(event)).isEmpty();
+    }
+
+    /**
+     * Remember events whose notifications were stored
+     */
+    public void markProcessed(List<OrderCreatedEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        for (OrderCreatedEvent event : events) {
+            filter.put(key(event.getOrderId()));
+        }
+    }
+
+    /**
+     * True (and counted) if e is the unique constraint on (orderId, type) rejecting a duplicate
+     * that got past the filter. Any other failure returns false and must be handled as a failure.
+     */
+    public boolean rejectedAsDuplicate(Throwable e) {
+        if (!isOrderTypeViolation(e)) {
+            return false;
+        }
+        duplicates.incrementAndGet();
+        return true;
+    }
+
+    static boolean isOrderTypeViolation(Throwable e) {
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                // Databases report the name in their own case, H2 with a schema prefix and suffix
+                String name = violation.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(Notification.UNIQUE_ORDER_TYPE);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("notifications.dedup.events", passed, AtomicLong::get)
+                .description("Order events checked by the dedup filter")
+                .tag("result", "new")
+                .register(registry);
+        FunctionCounter.builder("notifications.dedup.events", duplicates, AtomicLong::get)
+                .tag("result", "duplicate")
+                .register(registry);
+        FunctionCounter.builder("notifications.dedup.events", falsePositives, AtomicLong::get)
+                .tag("result", "false_positive")
+                .register(registry);
+        Gauge.builder("notifications.dedup.false.positive.rate", this, OrderEventDeduplicator::observedFalsePositiveRate)
+                .description("Share of new events the Bloom filter wrongly flagged as seen")
+                .register(registry);
+        Gauge.builder("notifications.dedup.expected.false.positive.rate", filter, TimeWindowedBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive rate implied by the current filter fill")
+                .register(registry);
+        Gauge.builder("notifications.dedup.fill.ratio", filter, TimeWindowedBloomFilter::fillRatio)
+                .register(registry);
+        Gauge.builder("notifications.dedup.memory", filter, TimeWindowedBloomFilter::memoryBytes)
+                .description("Heap used by the dedup Bloom filter")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private double observedFalsePositiveRate() {
+        long newEvents = passed.get();
+        return newEvents == 0 ? 0 : (double) falsePositives.get() / newEvents;
+    }
+
+    // All channels of an order are stored together, so the order id alone identifies the event
+    private static long key(long orderId) {
+        return orderId;
+    }
+}
@@ -1,45 +1,120 @@
 package com.dola.notificationservice.events;
 
+import com.dola.events.OrderCreatedEvent;
 import com.dola.notificationservice.services.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Listens for order events from Kafka
- * When OrderCreatedEvent is received, sends notification
+ * Events arrive in batches (one poll at a time) and their notifications are stored
+ * with one JDBC batch before the batch is acknowledged.
+ * notification.consumer.mode=parallel replaces it with ParallelOrderEventListener.
  */
 @Component
+@ConditionalOnProperty(name = "notification.consumer.mode", havingValue = "batch", matchIfMissing = true)
 public class OrderEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventListener.class);
 
     private final NotificationService notificationService;
+    private final OrderEventDeduplicator deduplicator;
 
-    public OrderEventListener(NotificationService notificationService) {
+    public OrderEventListener(NotificationService notificationService, OrderEventDeduplicator deduplicator) {
         this.notificationService = notificationService;
+        this.deduplicator = deduplicator;
     }
 
     /**
-     * Consume OrderCreatedEvent from Kafka topic
-     * This method is called automatically when a new event arrives
+     * Consume a batch of OrderCreatedEvents from Kafka
+     * Events that were already notified (replays) are dropped by OrderEventDeduplicator.
+     * A bad record (undecodable, missing orderId, or rejected by the database) is reported
+     * by index through BatchListenerFailedException: the records before it stay stored and
+     * committed, the bad one is handed to NotificationRetryRouter (see KafkaConfig.errorHandler)
+     * and the rest are redelivered. A database outage fails the whole batch, whose records
+     * then all go to the retry topics.
      */
     @KafkaListener(topics = "order-events", groupId = "notification-service-group")
-    public void handleOrderCreatedEvent(OrderCreatedEvent event) {
-        log.info("Received OrderCreatedEvent from Kafka - Order ID: {}, User ID: {}, Product: {}",
-                event.getOrderId(), event.getUserId(), event.getProductName());
+    public void handleOrderCreatedEvents(List<ConsumerRecord<String, OrderCreatedEvent>> records,
+                                         Acknowledgment acknowledgment) {
+        log.debug("Received {} OrderCreatedEvents from Kafka", records.size());
+
+        int firstInvalid = indexOfFirstInvalid(records);
+        List<OrderCreatedEvent> events = new ArrayList<>(firstInvalid);
+        for (int i = 0; i < firstInvalid; i++) {
+            events.add(records.get(i).value());
+        }
+        store(events);
+
+        if (firstInvalid < records.size()) {
+            ConsumerRecord<String, OrderCreatedEvent> invalid = records.get(firstInvalid);
+            log.warn("Invalid OrderCreatedEvent at {}-{}@{}", invalid.topic(), invalid.partition(), invalid.offset());
+            throw new BatchListenerFailedException("Invalid OrderCreatedEvent", firstInvalid);
+        }
+        acknowledgment.acknowledge();
+    }
 
+    // events[i] is records[i]; replays already notified are skipped
+    private void store(List<OrderCreatedEvent> events) {
+        List<OrderCreatedEvent> fresh = deduplicator.filterNew(events);
+        if (fresh.isEmpty()) {
+            return;
+        }
         try {
-            notificationService.sendOrderNotification(
-                    event.getOrderId(),
-                    event.getUserId(),
-                    event.getProductName()
-            );
-            log.info("Notification sent for Order ID: {}", event.getOrderId());
-        } catch (Exception e) {
-            log.error("Failed to process OrderCreatedEvent for Order ID: {} - {}",
-                    event.getOrderId(), e.getMessage(), e);
+            notificationService.sendOrderNotifications(fresh);
+            deduplicator.markProcessed(fresh);
+        } catch (DataAccessResourceFailureException | TransientDataAccessException | RecoverableDataAccessException e) {
+            // Database unavailable - the whole batch goes to the retry topics
+            throw e;
+        } catch (DataAccessException e) {
+            // One bad row (or a replay the filter missed) fails the whole JDBC batch; store one by one to find it
+            log.warn("Batch insert of {} notifications failed, storing one by one - {}", fresh.size(), e.getMessage());
+            Set<OrderCreatedEvent> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+            pending.addAll(fresh);
+            for (int i = 0; i < events.size(); i++) {
+                OrderCreatedEvent event = events.get(i);
+                if (!pending.contains(event)) {
+                    continue;
+                }
+                try {
+                    notificationService.sendOrderNotification(event);
+                } catch (DataAccessException recordFailure) {
+                    // Unique (orderId, type) means already notified; anything else fails this record
+                    if (!deduplicator.rejectedAsDuplicate(recordFailure)) {
+                        log.error("Failed to process OrderCreatedEvent for Order ID: {} - {}",
+                                event.getOrderId(), recordFailure.getMessage());
+                        throw new BatchListenerFailedException("Failed to store notification", recordFailure, i);
+                    }
+                }
+                deduplicator.markProcessed(List.of(event));
+            }
+        }
+    }
+
+    // A null value means the ErrorHandlingDeserializer could not decode the record
+    private static int indexOfFirstInvalid(List<ConsumerRecord<String, OrderCreatedEvent>> records) {
+        for (int i = 0; i < records.size(); i++) {
+            OrderCreatedEvent event = records.get(i).value();
+            if (event == null || event.getOrderId() == null) {
+                return i;
+            }
         }
+        return records.size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package com.dola.notificationservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.services.NotificationService;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Listens for order events and processes the records of one partition in parallel
+ * (notification.consumer.mode=parallel)
+ *
+ * Records are spread over a KeyOrderedExecutor by ordering key (userId or orderId), so
+ * events for the same key are still handled in order. Each record is acknowledged when
+ * its worker finishes; the container commits only up to the highest contiguous
+ * acknowledged offset. At most max-in-flight-per-partition records of a partition are
+ * being processed at once; beyond that the consumer thread waits for a free slot.
+ * Failed records are handed to the retry topics (NotificationRetryRouter). If the hand-off
+ * itself fails, the worker retries it with exponential backoff: with async acks the
+ * container delivers nothing new until every offset of a poll is acknowledged, so a record
+ * left unacknowledged would stall the whole consumer.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.consumer.mode", havingValue = "parallel")
+public class ParallelOrderEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelOrderEventListener.class);
+
+    private final NotificationService notificationService;
+    private final NotificationRetryRouter retryRouter;
+    private final OrderEventDeduplicator deduplicator;
+    private final KeyOrderedExecutor workers;
+    private final int maxInFlightPerPartition;
+    private final boolean orderByUser;
+    private final long handOffInitialBackoffMs;
+    private final long handOffMaxBackoffMs;
+    private final Map<TopicPartition, Semaphore> inFlight = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public ParallelOrderEventListener(NotificationService notificationService,
+                                      NotificationRetryRouter retryRouter,
+                                      OrderEventDeduplicator deduplicator,
+                                      @Value("${notification.consumer.parallel.workers:8}") int workerCount,
+                                      @Value("${notification.consumer.parallel.max-in-flight-per-partition:64}") int maxInFlightPerPartition,
+                                      @Value("${notification.consumer.parallel.ordering-key:user}") String orderingKey,
+                                      @Value("${notification.consumer.parallel.hand-off.initial-backoff-ms:500}") long handOffInitialBackoffMs,
+                                      @Value("${notification.consumer.parallel.hand-off.max-backoff-ms:30000}") long handOffMaxBackoffMs) {
+        this.notificationService = notificationService;
+        this.retryRouter = retryRouter;
+        this.deduplicator = deduplicator;
+        this.workers = new KeyOrderedExecutor(workerCount, "notification-worker-");
+        this.maxInFlightPerPartition = maxInFlightPerPartition;
+        this.orderByUser = "user".equalsIgnoreCase(orderingKey);
+        this.handOffInitialBackoffMs = handOffInitialBackoffMs;
+        this.handOffMaxBackoffMs = handOffMaxBackoffMs;
+    }
+
+    @KafkaListener(topics = "order-events", groupId = "notification-service-group",
+            containerFactory = "parallelKafkaListenerContainerFactory")
+    public void handleOrderCreatedEvent(ConsumerRecord<String, OrderCreatedEvent> record,
+                                        Acknowledgment acknowledgment) throws InterruptedException {
+        Semaphore slots = inFlight.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                partition -> new Semaphore(maxInFlightPerPartition));
+        slots.acquire();
+
+        workers.execute(orderingKey(record), () -> {
+            try {
+                processUntilHandedOff(record, acknowledgment);
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        workers.shutdown(10_000);
+    }
+
+    // Retries until the record is processed or handed to the retry topics; only a shutdown
+    // leaves it unacknowledged, and the container stops then anyway, so it is redelivered
+    private void processUntilHandedOff(ConsumerRecord<String, OrderCreatedEvent> record, Acknowledgment acknowledgment) {
+        long backoffMs = handOffInitialBackoffMs;
+        while (true) {
+            try {
+                process(record);
+                acknowledgment.acknowledge();
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Failed to hand off OrderCreatedEvent at {}-{}@{} during shutdown - {}",
+                            record.topic(), record.partition(), record.offset(), e.getMessage());
+                    return;
+                }
+                log.warn("Failed to hand off OrderCreatedEvent at {}-{}@{}, retrying in {} ms - {}",
+                        record.topic(), record.partition(), record.offset(), backoffMs, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMs = Math.min(handOffMaxBackoffMs, backoffMs * 2);
+        }
+    }
+
+    private void process(ConsumerRecord<String, OrderCreatedEvent> record) {
+        OrderCreatedEvent event = record.value();
+        if (event == null || event.getOrderId() == null) {
+            log.warn("Invalid OrderCreatedEvent at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            retryRouter.accept(record, new IllegalArgumentException("Invalid OrderCreatedEvent"));
+            return;
+        }
+        if (deduplicator.isDuplicate(event)) {
+            log.debug("Skipping replayed OrderCreatedEvent for Order ID: {}", event.getOrderId());
+            return;
+        }
+        try {
+            notificationService.sendOrderNotification(event);
+            deduplicator.markProcessed(List.of(event));
+        } catch (Exception e) {
+            if (deduplicator.rejectedAsDuplicate(e)) {
+                return;
+            }
+            log.warn("Failed to process OrderCreatedEvent for Order ID: {} - {}", event.getOrderId(), e.getMessage());
+            retryRouter.accept(record, e);
+        }
+    }
+
+    private Object orderingKey(ConsumerRecord<String, OrderCreatedEvent> record) {
+        OrderCreatedEvent event = record.value();
+        if (event == null) {
+            return record.key();
+        }
+        return orderByUser ? event.getUserId() : event.getOrderId();
+    }
+}
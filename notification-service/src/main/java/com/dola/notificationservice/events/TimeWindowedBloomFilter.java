@@ -0,0 +1,152 @@
+package com.dola.notificationservice.events;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Bloom filter over long keys that forgets keys after one to two windows
+ *
+ * Two generations of bits are kept. Keys are added to the current one, lookups check both,
+ * and once the current generation is older than the window it becomes the previous one
+ * and a fresh, empty generation takes its place. Memory is fixed at two bit arrays sized
+ * for expectedInsertions per window at the target false-positive rate.
+ *
+ * Lock-free for put/mightContain; rotation swaps generations atomically.
+ */
+public class TimeWindowedBloomFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final long windowMs;
+    private final LongSupplier clock;
+
+    private volatile Generations generations;
+
+    public TimeWindowedBloomFilter(long expectedInsertions, double falsePositiveRate, long windowMs, LongSupplier clock) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be > 0 and falsePositiveRate in (0, 1)");
+        }
+        // Standard sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.windowMs = windowMs;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.generations = new Generations(new Bits(bitCount, now), new Bits(bitCount, now));
+    }
+
+    public boolean mightContain(long key) {
+        Generations current = rotateIfExpired();
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        return current.current.contains(h1, h2, hashCount) || current.previous.contains(h1, h2, hashCount);
+    }
+
+    public void put(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        rotateIfExpired().current.set(h1, h2, hashCount);
+    }
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Heap held by both generations' bit arrays
+     */
+    public long memoryBytes() {
+        return 2L * ((bitCount + 63) / 64) * Long.BYTES;
+    }
+
+    /**
+     * Share of set bits in the current generation
+     */
+    public double fillRatio() {
+        return (double) generations.current.cardinality() / bitCount;
+    }
+
+    /**
+     * False-positive probability implied by the current fill: fillRatio^k.
+     * A lookup checks both generations, so the combined rate is up to
+     * 1 - (1 - p_current)(1 - p_previous).
+     */
+    public double expectedFalsePositiveRate() {
+        Generations snapshot = generations;
+        double current = Math.pow((double) snapshot.current.cardinality() / bitCount, hashCount);
+        double previous = Math.pow((double) snapshot.previous.cardinality() / bitCount, hashCount);
+        return 1 - (1 - current) * (1 - previous);
+    }
+
+    private Generations rotateIfExpired() {
+        Generations snapshot = generations;
+        long now = clock.getAsLong();
+        if (now - snapshot.current.createdAt < windowMs) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (generations == snapshot) {
+                generations = new Generations(new Bits(bitCount, now), snapshot.current);
+            }
+            return generations;
+        }
+    }
+
+    // SplitMix64 finalizer - spreads sequential ids over the whole bit range
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Generations(Bits current, Bits previous) {
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final int bitCount;
+        private final long createdAt;
+
+        private Bits(int bitCount, long createdAt) {
+            this.words = new AtomicLongArray((bitCount + 63) / 64);
+            this.bitCount = bitCount;
+            this.createdAt = createdAt;
+        }
+
+        // Kirsch-Mitzenmacher: k indexes from two hashes, h1 + i * h2
+        boolean contains(long h1, long h2, int k) {
+            for (int i = 0; i < k; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void set(long h1, long h2, int k) {
+            for (int i = 0; i < k; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                int index = bit >>> 6;
+                long word = words.get(index);
+                while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+            }
+        }
+
+        long cardinality() {
+            long count = 0;
+            for (int i = 0; i < words.length(); i++) {
+                count += Long.bitCount(words.get(i));
+            }
+            return count;
+        }
+    }
+}
@@ -1,7 +1,77 @@
 package com.dola.notificationservice.repositories;
 
 import com.dola.notificationservice.entities.Notification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Next page of notifications to redeliver, keyset-paged on id and locked
+     * FOR UPDATE SKIP LOCKED (lock timeout -2) so concurrent sweeps never pick the same row.
+     * PENDING rows only count once last queued before pendingBefore, so deliveries still
+     * in progress (first attempts and redeliveries alike) are left alone. Rows written before
+     * queuedAt existed fall back to createdAt.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select n from Notification n where n.id > :afterId and n.retryCount < :maxAttempts"
+            + " and (n.status = 'FAILED' or (n.status = 'PENDING' and coalesce(n.queuedAt, n.createdAt) < :pendingBefore))"
+            + " order by n.id")
+    List<Notification> findRetryable(@Param("afterId") long afterId,
+                                     @Param("maxAttempts") int maxAttempts,
+                                     @Param("pendingBefore") LocalDateTime pendingBefore,
+                                     Pageable pageable);
+
+    /**
+     * Which of the given orders already have notifications (on any channel)
+     * Served by the unique (orderId, type) index
+     */
+    @Query("select distinct n.orderId from Notification n where n.orderId in :orderIds")
+    List<Long> findNotifiedOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Order ids notified since a point in time, streamed with a JDBC fetch size
+     * Must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select n.orderId from Notification n where n.createdAt >= :since")
+    Stream<Long> streamOrderIdsCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * One keyset page: WHERE id > :afterId ORDER BY id LIMIT n, a primary-key range scan
+     */
+    List<Notification> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * All notifications after an id, streamed with a JDBC fetch size
+     * Must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select n from Notification n where n.id > :afterId order by n.id")
+    Stream<Notification> streamByIdGreaterThan(@Param("afterId") long afterId);
+
+    /**
+     * Write delivery outcomes back, one statement for the whole batch
+     */
+    @Transactional
+    @Modifying
+    @Query("update Notification n set n.status = :status, n.sentAt = :sentAt where n.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") String status,
+                     @Param("sentAt") LocalDateTime sentAt);
+}
@@ -0,0 +1,119 @@
+package com.dola.notificationservice.services;
+
+import com.dola.notificationservice.dto.RetrySweepResult;
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.repositories.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redelivers notifications stored as FAILED, or left PENDING for too long
+ *
+ * A sweep walks the table in id order, batch-size rows at a time (keyset paging on
+ * idx_notifications_status_id), and stops after max-batches so one sweep stays bounded.
+ * Each page is locked and set back to PENDING in its own transaction, then queued on
+ * NotificationDispatcher once committed; the dispatcher writes the new outcome.
+ * Runs on the scheduler and on POST /notifications/retry, never on a Kafka consumer thread.
+ */
+@Service
+public class NotificationRetryService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetryService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    @Value("${notification.retry.sweep.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.retry.sweep.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${notification.retry.sweep.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.retry.sweep.pending-grace-seconds:300}")
+    private long pendingGraceSeconds;
+
+    public NotificationRetryService(NotificationRepository notificationRepository,
+                                    NotificationService notificationService,
+                                    TransactionTemplate transactionTemplate) {
+        this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.retry.sweep.interval-ms:60000}",
+            initialDelayString = "${notification.retry.sweep.interval-ms:60000}")
+    public void scheduledSweep() {
+        retryFailedNotifications().ifPresent(result -> {
+            if (result.getScanned() > 0) {
+                log.info("Retry sweep finished - scanned: {}, sent: {}, failed: {}, complete: {}",
+                        result.getScanned(), result.getSent(), result.getFailed(), result.isComplete());
+            }
+        });
+    }
+
+    /**
+     * Run one bounded sweep now
+     * Returns empty when another sweep is already running in this instance
+     */
+    public Optional<RetrySweepResult> retryFailedNotifications() {
+        if (!sweepLock.tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(sweep());
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private RetrySweepResult sweep() {
+        LocalDateTime pendingBefore = LocalDateTime.now().minusSeconds(pendingGraceSeconds);
+        long afterId = 0;
+        int batches = 0;
+        int scanned = 0;
+        int sent = 0;
+        boolean complete = false;
+
+        while (batches < maxBatches) {
+            long cursor = afterId;
+            List<Notification> page = transactionTemplate.execute(status -> retryPage(cursor, pendingBefore));
+            if (!page.isEmpty()) {
+                batches++;
+                scanned += page.size();
+                // Queued only after the commit, so the status writer never waits on this page's row locks
+                sent += notificationService.redeliver(page);
+                afterId = page.get(page.size() - 1).getId();
+            }
+            if (page.size() < batchSize) {
+                complete = true;
+                break;
+            }
+        }
+        return new RetrySweepResult(batches, scanned, sent, scanned - sent, complete);
+    }
+
+    // Runs inside the page transaction; the updated rows are flushed as one JDBC batch at commit
+    private List<Notification> retryPage(long afterId, LocalDateTime pendingBefore) {
+        List<Notification> notifications = notificationRepository.findRetryable(
+                afterId, maxAttempts, pendingBefore, PageRequest.of(0, batchSize));
+        for (Notification notification : notifications) {
+            notificationService.prepareRedelivery(notification);
+        }
+        return notifications;
+    }
+}
@@ -1,11 +1,21 @@
 package com.dola.notificationservice.services;
 
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.delivery.NotificationDispatcher;
 import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.entities.NotificationChannel;
 import com.dola.notificationservice.repositories.NotificationRepository;
+import com.dola.notificationservice.templates.ChannelTemplate;
+import com.dola.notificationservice.templates.NotificationTemplateEngine;
+import com.dola.notificationservice.templates.OrderTemplateFields;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 @Service
 public class NotificationService {
@@ -13,40 +23,93 @@ public class NotificationService {
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
     private final NotificationRepository notificationRepository;
+    private final NotificationTemplateEngine templateEngine;
+    private final NotificationDispatcher dispatcher;
+    private final List<NotificationChannel> channels;
+    private final Locale locale;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationTemplateEngine templateEngine,
+                               NotificationDispatcher dispatcher,
+                               @Value("${notification.channels:EMAIL}") List<NotificationChannel> channels,
+                               @Value("${notification.templates.locale:en}") Locale locale) {
         this.notificationRepository = notificationRepository;
+        this.templateEngine = templateEngine;
+        this.dispatcher = dispatcher;
+        this.channels = List.copyOf(channels);
+        this.locale = locale;
     }
 
     /**
-     * Send notification for order
-     * Called by OrderEventListener when OrderCreatedEvent is received from Kafka
+     * Send notifications for order, one per configured channel
+     * Called by the listeners when a single OrderCreatedEvent has to be stored on its own;
+     * the rows are saved together, so an order is either notified on every channel or on none
      */
-    public Notification sendOrderNotification(Long orderId, Long userId, String productName) {
-        String message = String.format("Order #%d created for user #%d. Product: %s", orderId, userId, productName);
+    public List<Notification> sendOrderNotification(OrderCreatedEvent event) {
+        return sendOrderNotifications(List.of(event));
+    }
 
-        // Create notification
-        Notification notification = new Notification(
-                orderId,
-                userId,
-                message,
-                "EMAIL",
-                "SENT"
-        );
-        notification.setSentAt(LocalDateTime.now());
+    /**
+     * Send notifications for a batch of OrderCreatedEvents
+     * Called by OrderEventListener once per poll; all rows are inserted as PENDING with one
+     * JDBC-batched saveAll in a single transaction, so either all are stored or none.
+     * Delivery happens afterwards on NotificationDispatcher's workers, not on the caller's thread.
+     */
+    public List<Notification> sendOrderNotifications(List<OrderCreatedEvent> events) {
+        List<Notification> notifications = new ArrayList<>(events.size() * channels.size());
+        // Templates are resolved once per batch and channel, then only rendered per event
+        for (NotificationChannel channel : channels) {
+            ChannelTemplate<OrderCreatedEvent> template =
+                    templateEngine.resolve(OrderTemplateFields.EVENT_TYPE, channel, locale);
+            for (OrderCreatedEvent event : events) {
+                notifications.add(newOrderNotification(template, event));
+            }
+        }
 
-        // Save to database
-        Notification saved = notificationRepository.save(notification);
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        int queued = dispatcher.dispatch(saved);
 
-        log.info("Notification sent - To User: {}, Type: EMAIL, Message: {}", userId, message);
+        if (events.size() == 1) {
+            log.info("Notification queued - To User: {}, Channels: {}", events.get(0).getUserId(), channels);
+        } else {
+            log.info("Notifications queued - Count: {}/{}, Channels: {}", queued, saved.size(), channels);
+        }
 
         return saved;
     }
 
+    private static Notification newOrderNotification(ChannelTemplate<OrderCreatedEvent> template,
+                                                     OrderCreatedEvent event) {
+        Notification notification = new Notification(
+                event.getOrderId(),
+                event.getUserId(),
+                template.renderBody(event),
+                template.getChannel().name(),
+                "PENDING"
+        );
+        notification.setSubject(template.renderSubject(event));
+        return notification;
+    }
+
+    /**
+     * Prepare a FAILED or stuck PENDING notification for another delivery attempt
+     * Called by NotificationRetryService inside its sweep transaction; the entity is
+     * updated in place and flushed with the rest of the page, then handed to redeliver(List)
+     */
+    public void prepareRedelivery(Notification notification) {
+        notification.setRetryCount(notification.getRetryCount() + 1);
+        notification.setStatus("PENDING");
+        // Restarts the pending grace period, so the next sweep leaves this attempt alone
+        notification.setQueuedAt(LocalDateTime.now());
+    }
+
     /**
-     * Retry failed notifications
+     * Queue notifications prepared by prepareRedelivery once their page is committed
+     * Returns how many were queued
      */
-    public void retryFailedNotifications() {
-        log.info("Retrying failed notifications...");
+    public int redeliver(List<Notification> notifications) {
+        int queued = dispatcher.dispatch(notifications);
+        log.info("Notifications re-queued - Count: {}/{}", queued, notifications.size());
+        return queued;
     }
-}
\ No newline at end of file
+}
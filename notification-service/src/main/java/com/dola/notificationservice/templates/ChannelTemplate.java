@@ -0,0 +1,36 @@
+package com.dola.notificationservice.templates;
+
+import com.dola.notificationservice.entities.NotificationChannel;
+
+/**
+ * The compiled templates of one event type, channel and locale
+ * Only EMAIL has a subject; SMS and PUSH have a body (PUSH: the JSON payload).
+ */
+public final class ChannelTemplate<T> {
+
+    private final NotificationChannel channel;
+    private final CompiledTemplate<T> subject;
+    private final CompiledTemplate<T> body;
+
+    ChannelTemplate(NotificationChannel channel, CompiledTemplate<T> subject, CompiledTemplate<T> body) {
+        this.channel = channel;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    public boolean hasSubject() {
+        return subject != null;
+    }
+
+    public String renderSubject(T model) {
+        return subject == null ? null : subject.render(model);
+    }
+
+    public String renderBody(T model) {
+        return body.render(model);
+    }
+}
@@ -0,0 +1,117 @@
+package com.dola.notificationservice.templates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message template parsed once into literal and field segments
+ *
+ * Syntax: ${name} is replaced by the field of that name; any other text, including a
+ * '$' or '{' that does not open a placeholder, is copied as is. Unknown names fail
+ * compilation, so a typo is reported when the templates are loaded and not per message.
+ */
+public final class CompiledTemplate<T> {
+
+    private static final int INITIAL_BUFFER = 256;
+    // Larger buffers are not kept, so one huge message does not pin memory on a thread
+    private static final int MAX_RETAINED_BUFFER = 8 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER));
+
+    private final String source;
+    private final List<TemplateField<T>> segments;
+
+    private CompiledTemplate(String source, List<TemplateField<T>> segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    /**
+     * @param jsonEscape escape field values for use inside a JSON document (literals are left alone)
+     */
+    public static <T> CompiledTemplate<T> compile(String source, Map<String, TemplateField<T>> fields,
+                                                  boolean jsonEscape) {
+        List<TemplateField<T>> segments = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("${", position);
+            if (open < 0) {
+                segments.add(literal(source.substring(position)));
+                break;
+            }
+            int close = source.indexOf('}', open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder at " + open + " in template: " + source);
+            }
+            if (open > position) {
+                segments.add(literal(source.substring(position, open)));
+            }
+            String name = source.substring(open + 2, close).trim();
+            TemplateField<T> field = fields.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown placeholder ${" + name + "} in template: " + source
+                        + " - available: " + fields.keySet());
+            }
+            segments.add(jsonEscape ? jsonEscaped(field) : field);
+            position = close + 1;
+        }
+        return new CompiledTemplate<>(source, List.copyOf(segments));
+    }
+
+    public void renderTo(StringBuilder out, T model) {
+        for (int i = 0; i < segments.size(); i++) {
+            segments.get(i).appendTo(out, model);
+        }
+    }
+
+    /**
+     * Render into this thread's reusable buffer and copy the result out
+     */
+    public String render(T model) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        renderTo(out, model);
+        String message = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.set(new StringBuilder(INITIAL_BUFFER));
+        }
+        return message;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private static <T> TemplateField<T> literal(String text) {
+        return (out, model) -> out.append(text);
+    }
+
+    private static <T> TemplateField<T> jsonEscaped(TemplateField<T> field) {
+        return (out, model) -> {
+            int start = out.length();
+            field.appendTo(out, model);
+            escapeJson(out, start);
+        };
+    }
+
+    // Escapes out[start..] in place; values that need no escaping are only scanned
+    static void escapeJson(StringBuilder out, int start) {
+        for (int i = start; i < out.length(); i++) {
+            char c = out.charAt(i);
+            String replacement = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (replacement != null) {
+                out.replace(i, i + 1, replacement);
+                i += replacement.length() - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.dola.notificationservice.templates;
+
+import com.dola.notificationservice.entities.NotificationChannel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Notification templates per event type, channel and locale, compiled once at load
+ *
+ * Files are named {eventType}[_{locale}].properties (order-created.properties,
+ * order-created_de.properties) and hold {channel}.subject / {channel}.body entries,
+ * e.g. email.subject, sms.body, push.body. A locale falls back to its language and then
+ * to the file without a locale, which must define every channel.
+ *
+ * The location is polled for changes, so templates under a file: location can be edited
+ * without a restart. A reload that fails to compile keeps the previous templates.
+ */
+@Component
+public class NotificationTemplateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationTemplateEngine.class);
+
+    private static final Map<String, Map<String, ? extends TemplateField<?>>> EVENT_FIELDS = Map.of(
+            OrderTemplateFields.EVENT_TYPE, OrderTemplateFields.FIELDS);
+
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private final String location;
+
+    // Replaced as a whole on reload, so a render never sees a half-loaded set
+    private volatile Map<String, ChannelTemplate<?>> templates = Map.of();
+    private volatile Map<String, Long> loadedFiles = Map.of();
+
+    public NotificationTemplateEngine(
+            @Value("${notification.templates.location:classpath:notification-templates/}") String location) {
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        load(findTemplateFiles());
+    }
+
+    @Scheduled(fixedDelayString = "${notification.templates.reload-interval-ms:10000}")
+    void reloadIfChanged() {
+        try {
+            Resource[] files = findTemplateFiles();
+            if (!fingerprint(files).equals(loadedFiles)) {
+                load(files);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Reloading notification templates from {} failed, keeping the previous ones - {}",
+                    location, e.getMessage());
+        }
+    }
+
+    /**
+     * The template to render an event with; resolve once and render many
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ChannelTemplate<T> resolve(String eventType, NotificationChannel channel, Locale locale) {
+        Map<String, ChannelTemplate<?>> current = templates;
+        String language = locale.getLanguage();
+        ChannelTemplate<?> template = current.get(key(eventType, locale.toString(), channel));
+        if (template == null && !language.isEmpty()) {
+            template = current.get(key(eventType, language, channel));
+        }
+        if (template == null) {
+            template = current.get(key(eventType, "", channel));
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("No " + channel + " template for event type " + eventType);
+        }
+        return (ChannelTemplate<T>) template;
+    }
+
+    private Resource[] findTemplateFiles() throws IOException {
+        return resolver.getResources(location + "*.properties");
+    }
+
+    private void load(Resource[] files) throws IOException {
+        Map<String, ChannelTemplate<?>> compiled = new HashMap<>();
+        for (Resource file : files) {
+            String name = file.getFilename();
+            String baseName = name.substring(0, name.length() - ".properties".length());
+            int separator = baseName.indexOf('_');
+            String eventType = separator < 0 ? baseName : baseName.substring(0, separator);
+            String localeTag = separator < 0 ? "" : baseName.substring(separator + 1);
+
+            Map<String, TemplateField<Object>> fields = fieldsOf(eventType);
+            if (fields == null) {
+                log.warn("Ignoring notification template {} - unknown event type {}", name, eventType);
+                continue;
+            }
+            Properties entries = new Properties();
+            try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+                entries.load(reader);
+            }
+            for (NotificationChannel channel : NotificationChannel.values()) {
+                String prefix = channel.name().toLowerCase(Locale.ROOT);
+                String body = entries.getProperty(prefix + ".body");
+                String subject = entries.getProperty(prefix + ".subject");
+                if (body == null) {
+                    if (subject != null) {
+                        throw new IllegalArgumentException(name + " has " + prefix + ".subject but no " + prefix + ".body");
+                    }
+                    continue;
+                }
+                // The PUSH body is a JSON payload, so values are escaped for JSON strings
+                boolean json = channel == NotificationChannel.PUSH;
+                compiled.put(key(eventType, localeTag, channel), new ChannelTemplate<>(channel,
+                        subject == null ? null : CompiledTemplate.compile(subject, fields, false),
+                        CompiledTemplate.compile(body, fields, json)));
+            }
+        }
+
+        for (String eventType : EVENT_FIELDS.keySet()) {
+            for (NotificationChannel channel : NotificationChannel.values()) {
+                if (!compiled.containsKey(key(eventType, "", channel))) {
+                    throw new IllegalStateException("Missing default " + channel + " template in "
+                            + location + eventType + ".properties");
+                }
+            }
+        }
+
+        templates = Map.copyOf(compiled);
+        loadedFiles = fingerprint(files);
+        log.info("Loaded {} notification templates from {}", compiled.size(), location);
+    }
+
+    private static Map<String, Long> fingerprint(Resource[] files) {
+        Map<String, Long> fingerprint = new HashMap<>();
+        for (Resource file : files) {
+            long lastModified;
+            try {
+                lastModified = file.lastModified();
+            } catch (IOException e) {
+                lastModified = -1;
+            }
+            fingerprint.put(file.getFilename(), lastModified);
+        }
+        return fingerprint;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, TemplateField<Object>> fieldsOf(String eventType) {
+        return (Map<String, TemplateField<Object>>) (Map<String, ?>) EVENT_FIELDS.get(eventType);
+    }
+
+    private static String key(String eventType, String localeTag, NotificationChannel channel) {
+        return eventType + '|' + localeTag + '|' + channel;
+    }
+}
@@ -0,0 +1,53 @@
+package com.dola.notificationservice.templates;
+
+import com.dola.events.OrderCreatedEvent;
+
+import java.util.Map;
+
+/**
+ * Placeholders available to order-created templates
+ */
+public final class OrderTemplateFields {
+
+    public static final String EVENT_TYPE = "order-created";
+
+    public static final Map<String, TemplateField<OrderCreatedEvent>> FIELDS = Map.of(
+            "orderId", (out, event) -> appendLong(out, event.getOrderId()),
+            "userId", (out, event) -> appendLong(out, event.getUserId()),
+            "productName", (out, event) -> out.append(event.getProductName()),
+            "productPrice", (out, event) -> appendAmount(out, event.getProductPrice()),
+            "total", (out, event) -> appendAmount(out, event.getTotal()),
+            "status", (out, event) -> out.append(event.getStatus()),
+            "createdAt", (out, event) -> out.append(event.getCreatedAt())
+    );
+
+    private OrderTemplateFields() {
+    }
+
+    private static void appendLong(StringBuilder out, Long value) {
+        if (value == null) {
+            out.append("null");
+        } else {
+            out.append(value.longValue());
+        }
+    }
+
+    // Two decimals without going through a Formatter
+    static void appendAmount(StringBuilder out, Double value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        long cents = Math.round(value * 100);
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        out.append(cents / 100).append('.');
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
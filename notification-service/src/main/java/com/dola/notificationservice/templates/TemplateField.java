@@ -0,0 +1,12 @@
+package com.dola.notificationservice.templates;
+
+/**
+ * Appends one value of the model to the message being rendered
+ * Placeholders are bound to a TemplateField when the template is compiled,
+ * so rendering never looks a name up.
+ */
+@FunctionalInterface
+public interface TemplateField<T> {
+
+    void appendTo(StringBuilder out, T model);
+}
@@ -0,0 +1,47 @@
+package com.dola.notificationservice.delivery;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// TokenBucket tests
+// ===========================================================================================
+// WHY: the bucket is all that keeps a backlog from exceeding a provider's rate limit -
+// the burst must pass at once and anything beyond it has to be spread at the configured rate
+class TokenBucketTests {
+
+	@Test
+	void burstPassesWithoutWaiting() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(10, 50);
+
+		long start = System.nanoTime();
+		bucket.acquire(50);
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+	}
+
+	@Test
+	void permitsBeyondTheBurstWaitForTheRate() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(1000, 10);
+
+		long start = System.nanoTime();
+		bucket.acquire(10);
+		bucket.acquire(100);
+
+		// 100 tokens at 1000/s - at least ~100 ms, a little slack for the refill between calls
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+	}
+
+	@Test
+	void zeroRateMeansUnlimited() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(0, 1);
+
+		long start = System.nanoTime();
+		bucket.acquire(1_000_000);
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+	}
+}
@@ -0,0 +1,64 @@
+package com.dola.notificationservice.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// KeyOrderedExecutor tests
+// ===========================================================================================
+// WHY: parallel consumption is only correct if events for one key (user or order) are still
+// handled in the order they were read from the partition
+class KeyOrderedExecutorTests {
+
+	@Test
+	void tasksWithTheSameKeyRunInSubmissionOrder() throws InterruptedException {
+		KeyOrderedExecutor executor = new KeyOrderedExecutor(4, "test-worker-");
+		Map<Long, List<Integer>> seen = new ConcurrentHashMap<>();
+
+		for (int i = 0; i < 1000; i++) {
+			long key = i % 10;
+			int sequence = i;
+			executor.execute(key, () -> {
+				// WHY: random work makes lanes finish out of step with each other
+				busyWait(ThreadLocalRandom.current().nextInt(20_000));
+				seen.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(sequence);
+			});
+		}
+		executor.shutdown(10_000);
+
+		assertEquals(10, seen.size());
+		for (List<Integer> sequences : seen.values()) {
+			assertEquals(100, sequences.size());
+			List<Integer> sorted = new ArrayList<>(sequences);
+			Collections.sort(sorted);
+			assertEquals(sorted, sequences, "tasks for one key must not be reordered");
+		}
+	}
+
+	@Test
+	void nullKeyIsAccepted() throws InterruptedException {
+		// WHY: undecodable records carry no event, and their Kafka key may be null too
+		KeyOrderedExecutor executor = new KeyOrderedExecutor(2, "test-worker-");
+		List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+		executor.execute(null, () -> ran.add("done"));
+		executor.shutdown(10_000);
+
+		assertEquals(List.of("done"), ran);
+	}
+
+	private static void busyWait(long nanos) {
+		long end = System.nanoTime() + nanos;
+		while (System.nanoTime() < end) {
+			Thread.onSpinWait();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.dola.notificationservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.services.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// ===========================================================================================
+// NotificationRetryConsumer tests
+// ===========================================================================================
+// WHY: every record on a retry tier must end up either notified, forwarded or redelivered -
+// a record that is acknowledged without being forwarded is a lost notification
+class NotificationRetryConsumerTests {
+
+	private static final long TIER_DELAY_MS = 1_000;
+
+	private NotificationRetryRouter retryRouter;
+	private NotificationService notificationService;
+	private Acknowledgment acknowledgment;
+	private NotificationRetryConsumer consumer;
+
+	@BeforeEach
+	void setUp() {
+		retryRouter = mock(NotificationRetryRouter.class);
+		when(retryRouter.getDelayMs(anyInt())).thenReturn(TIER_DELAY_MS);
+		notificationService = mock(NotificationService.class);
+		acknowledgment = mock(Acknowledgment.class);
+		consumer = new NotificationRetryConsumer(null, retryRouter, notificationService,
+				mock(OrderEventDeduplicator.class));
+	}
+
+	@Test
+	void recordIsNackedUntilItsTierDelayHasPassed() {
+		consumer.handle(1, record(System.currentTimeMillis() - 300), acknowledgment);
+
+		ArgumentCaptor<Duration> sleep = ArgumentCaptor.forClass(Duration.class);
+		verify(acknowledgment).nack(sleep.capture());
+		assertTrue(sleep.getValue().toMillis() > 0 && sleep.getValue().toMillis() <= 700,
+				"nacked for the remaining delay only, was " + sleep.getValue());
+		verifyNoInteractions(notificationService);
+		verify(acknowledgment, never()).acknowledge();
+	}
+
+	@Test
+	void dueRecordIsNotifiedAndAcknowledged() {
+		ConsumerRecord<String, OrderCreatedEvent> record = record(System.currentTimeMillis() - TIER_DELAY_MS);
+
+		consumer.handle(1, record, acknowledgment);
+
+		verify(notificationService).sendOrderNotification(record.value());
+		verify(acknowledgment).acknowledge();
+	}
+
+	@Test
+	void failedRecordIsForwardedAndAcknowledged() {
+		ConsumerRecord<String, OrderCreatedEvent> record = record(System.currentTimeMillis() - TIER_DELAY_MS);
+		RuntimeException failure = new RuntimeException("provider down");
+		when(notificationService.sendOrderNotification(any())).thenThrow(failure);
+
+		consumer.handle(2, record, acknowledgment);
+
+		verify(retryRouter).retryFailed(record, 2, failure);
+		verify(acknowledgment).acknowledge();
+	}
+
+	@Test
+	void recordIsRedeliveredWhenItCannotBeForwarded() {
+		// WHY: Kafka down while forwarding - acknowledging would drop the record, throwing would
+		// leave it to the container's default error handling, which ends in a skip
+		ConsumerRecord<String, OrderCreatedEvent> record = record(System.currentTimeMillis() - TIER_DELAY_MS);
+		when(notificationService.sendOrderNotification(any())).thenThrow(new RuntimeException("provider down"));
+		doThrow(new KafkaException("broker unavailable")).when(retryRouter).retryFailed(eq(record), eq(3), any());
+
+		consumer.handle(3, record, acknowledgment);
+
+		verify(acknowledgment).nack(Duration.ofMillis(TIER_DELAY_MS));
+		verify(acknowledgment, never()).acknowledge();
+	}
+
+	private static ConsumerRecord<String, OrderCreatedEvent> record(long timestamp) {
+		return new ConsumerRecord<>("order-events.retry-1", 0, 0L, timestamp, TimestampType.CREATE_TIME,
+				1, 32, "7", new OrderCreatedEvent(7L, 42L, "Laptop", 999.99, 999.99, "PENDING"),
+				new RecordHeaders(), Optional.empty());
+	}
+}
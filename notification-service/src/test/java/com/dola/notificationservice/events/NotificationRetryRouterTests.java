@@ -0,0 +1,119 @@
+package com.dola.notificationservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.events.OrderCreatedEventSerializer;
+import com.dola.notificationservice.config.KafkaConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// NotificationRetryRouter tests
+// ===========================================================================================
+// WHY: a failed order event must move one tier further on every failure and end up in the
+// DLT after the last tier - never be dropped, and never loop forever
+class NotificationRetryRouterTests {
+
+	private static final RuntimeException FAILURE = new RuntimeException("provider down");
+
+	@Test
+	void tierDelaysGrowByTheMultiplierUpToTheMaximum() {
+		NotificationRetryRouter router = router(producer(true), 10_000);
+
+		assertEquals(3, router.getTierCount());
+		assertEquals(1_000, router.getDelayMs(1));
+		assertEquals(4_000, router.getDelayMs(2));
+		assertEquals(10_000, router.getDelayMs(3), "capped at max-delay-ms");
+	}
+
+	@Test
+	void failedRecordIsForwardedToTheNextTier() {
+		MockProducer<String, Object> producer = producer(true);
+		NotificationRetryRouter router = router(producer, 10_000);
+		OrderCreatedEvent event = event(7L);
+
+		router.accept(record(event), FAILURE);
+		router.retryFailed(record(event), 1, FAILURE);
+
+		List<ProducerRecord<String, Object>> sent = producer.history();
+		assertEquals(List.of("order-events.retry-1", "order-events.retry-2"),
+				sent.stream().map(ProducerRecord::topic).toList());
+		assertEquals("7", sent.get(0).key(), "the key is kept, so per-order ordering survives the retry");
+		assertEquals(7L, ((OrderCreatedEvent) sent.get(1).value()).getOrderId());
+	}
+
+	@Test
+	void recordFailingOnTheLastTierGoesToTheDeadLetterTopic() {
+		MockProducer<String, Object> producer = producer(true);
+
+		router(producer, 10_000).retryFailed(record(event(7L)), 3, FAILURE);
+
+		assertEquals(List.of(KafkaConfig.DEAD_LETTER_TOPIC), producer.history().stream().map(ProducerRecord::topic).toList());
+	}
+
+	@Test
+	void recordThatCanNeverSucceedSkipsTheRetryTiers() {
+		// WHY: an undecodable payload fails the same way on every tier, so retrying only delays the DLT
+		MockProducer<String, Object> producer = producer(true);
+
+		router(producer, 10_000).accept(new ConsumerRecord<>("order-events", 0, 0L, "7", new byte[]{1, 2, 3}), FAILURE);
+
+		assertEquals(List.of(KafkaConfig.DEAD_LETTER_TOPIC), producer.history().stream().map(ProducerRecord::topic).toList());
+	}
+
+	@Test
+	void forwardThatIsNotAcknowledgedInTimeIsReported() {
+		// WHY: the caller must not acknowledge a record that never reached the retry topic
+		MockProducer<String, Object> producer = producer(false);
+
+		assertThrows(KafkaException.class, () -> router(producer, 50).accept(record(event(7L)), FAILURE));
+	}
+
+	private static NotificationRetryRouter router(MockProducer<String, Object> producer, long sendTimeoutMs) {
+		KafkaTemplate<String, Object> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+		DeadLetterPublishingRecoverer deadLetter = new DeadLetterPublishingRecoverer(template,
+				(record, ex) -> new TopicPartition(KafkaConfig.DEAD_LETTER_TOPIC, 0));
+		return new NotificationRetryRouter(template, deadLetter, 3, 1_000, 4.0, 10_000, sendTimeoutMs);
+	}
+
+	private static MockProducer<String, Object> producer(boolean autoComplete) {
+		// WHY: KafkaTemplate closes a MockProducer after each send, so the test keeps one open
+		return new MockProducer<>(autoComplete, null, new StringSerializer(), valueSerializer()) {
+			@Override
+			public void close(Duration timeout) {
+			}
+		};
+	}
+
+	private static Serializer<Object> valueSerializer() {
+		Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+		valueSerializers.put(byte[].class, new ByteArraySerializer());
+		valueSerializers.put(OrderCreatedEvent.class, new OrderCreatedEventSerializer(OrderCreatedEventSerializer.FORMAT_BINARY));
+		return new DelegatingByTypeSerializer(valueSerializers);
+	}
+
+	private static ConsumerRecord<String, Object> record(OrderCreatedEvent event) {
+		return new ConsumerRecord<>("order-events", 0, 0L, String.valueOf(event.getOrderId()), event);
+	}
+
+	private static OrderCreatedEvent event(long orderId) {
+		return new OrderCreatedEvent(orderId, 42L, "Laptop", 999.99, 999.99, "PENDING");
+	}
+}
@@ -0,0 +1,50 @@
+package com.dola.notificationservice.events;
+
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.repositories.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// OrderEventDeduplicator tests (against the H2 schema)
+// ===========================================================================================
+// WHY: the listeners acknowledge a record as "already notified" when the database rejects it
+// as a duplicate - that must only happen for the (orderId, type) unique constraint, not for
+// every integrity violation, or a broken row would be dropped silently
+@SpringBootTest
+class OrderEventDeduplicatorTests {
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private OrderEventDeduplicator deduplicator;
+
+	@Test
+	void secondNotificationForTheSameOrderAndChannelIsADuplicate() {
+		notificationRepository.saveAndFlush(notification(9_001L, "Order confirmed"));
+
+		DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+				() -> notificationRepository.saveAndFlush(notification(9_001L, "Order confirmed")));
+
+		assertTrue(deduplicator.rejectedAsDuplicate(e));
+	}
+
+	@Test
+	void otherIntegrityViolationsAreNotDuplicates() {
+		// WHY: message is varchar(1024) - too long is a real failure and must be retried / dead-lettered
+		DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+				() -> notificationRepository.saveAndFlush(notification(9_002L, "x".repeat(2_000))));
+
+		assertFalse(deduplicator.rejectedAsDuplicate(e));
+		assertFalse(deduplicator.rejectedAsDuplicate(new IllegalStateException("provider down")));
+	}
+
+	private static Notification notification(long orderId, String message) {
+		return new Notification(orderId, 42L, message, "EMAIL", "PENDING");
+	}
+}
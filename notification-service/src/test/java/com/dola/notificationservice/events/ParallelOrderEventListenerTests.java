@@ -0,0 +1,67 @@
+package com.dola.notificationservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.notificationservice.services.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// ===========================================================================================
+// ParallelOrderEventListener tests
+// ===========================================================================================
+// WHY: with async acks the container delivers nothing new until every offset of a poll is
+// acknowledged - one record whose hand-off to the retry topics failed once must not stall
+// the consumer for good
+class ParallelOrderEventListenerTests {
+
+	private NotificationService notificationService;
+	private NotificationRetryRouter retryRouter;
+	private ParallelOrderEventListener listener;
+
+	@BeforeEach
+	void setUp() {
+		notificationService = mock(NotificationService.class);
+		retryRouter = mock(NotificationRetryRouter.class);
+		listener = new ParallelOrderEventListener(notificationService, retryRouter,
+				mock(OrderEventDeduplicator.class), 2, 64, "user", 10, 100);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		listener.shutdown();
+	}
+
+	@Test
+	void failedHandOffIsRetriedAndLaterRecordsStillProcessed() throws InterruptedException {
+		ConsumerRecord<String, OrderCreatedEvent> failing = record(0, 7L);
+		ConsumerRecord<String, OrderCreatedEvent> next = record(1, 8L);
+		when(notificationService.sendOrderNotification(argThat(event -> event.getOrderId() == 7L)))
+				.thenThrow(new RuntimeException("provider down"));
+		doThrow(new KafkaException("retry topic send timed out")).doNothing()
+				.when(retryRouter).accept(eq(failing), any());
+		Acknowledgment failingAck = mock(Acknowledgment.class);
+		Acknowledgment nextAck = mock(Acknowledgment.class);
+
+		listener.handleOrderCreatedEvent(failing, failingAck);
+		listener.handleOrderCreatedEvent(next, nextAck);
+
+		verify(failingAck, timeout(5_000)).acknowledge();
+		verify(retryRouter, times(2)).accept(eq(failing), any());
+		verify(nextAck, timeout(5_000)).acknowledge();
+		verify(notificationService).sendOrderNotification(next.value());
+	}
+
+	private static ConsumerRecord<String, OrderCreatedEvent> record(long offset, long orderId) {
+		// Same user: the second record waits on the first record's lane
+		return new ConsumerRecord<>("order-events", 0, offset, String.valueOf(orderId),
+				new OrderCreatedEvent(orderId, 42L, "Laptop", 999.99, 999.99, "PENDING"));
+	}
+}
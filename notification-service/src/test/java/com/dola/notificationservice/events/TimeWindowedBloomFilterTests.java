@@ -0,0 +1,69 @@
+package com.dola.notificationservice.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// TimeWindowedBloomFilter tests
+// ===========================================================================================
+// WHY: the dedup filter may only err on the side of "maybe seen" (which the database
+// double-checks) - a false "never seen" would let a replay send a second email
+class TimeWindowedBloomFilterTests {
+
+	@Test
+	void addedKeysAreAlwaysFound() {
+		TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(10_000, 0.01, 60_000, () -> 0L);
+
+		for (long orderId = 1; orderId <= 10_000; orderId++) {
+			filter.put(orderId);
+		}
+
+		for (long orderId = 1; orderId <= 10_000; orderId++) {
+			assertTrue(filter.mightContain(orderId), "no false negatives allowed");
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(10_000, 0.01, 60_000, () -> 0L);
+		for (long orderId = 1; orderId <= 10_000; orderId++) {
+			filter.put(orderId);
+		}
+
+		int falsePositives = 0;
+		for (long orderId = 1_000_000; orderId < 1_100_000; orderId++) {
+			if (filter.mightContain(orderId)) {
+				falsePositives++;
+			}
+		}
+
+		// WHY: 1% target on 100k probes - allow some slack for hashing variance
+		assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+		assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+	}
+
+	@Test
+	void keysAreForgottenAfterTwoWindows() {
+		AtomicLong now = new AtomicLong();
+		TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(1_000, 0.01, 1_000, now::get);
+		filter.put(42L);
+
+		now.set(1_500);
+		assertTrue(filter.mightContain(42L), "still in the previous generation");
+
+		now.set(2_600);
+		assertFalse(filter.mightContain(42L), "dropped once both generations rotated");
+	}
+
+	@Test
+	void memoryIsTwoBitArrays() {
+		TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(1_000_000, 0.01, 60_000, () -> 0L);
+
+		// WHY: ~9.6 bits per key at 1% -> ~1.2 MB per generation
+		assertEquals(2L * ((filter.getBitCount() + 63) / 64) * 8, filter.memoryBytes());
+		assertTrue(filter.memoryBytes() < 3_000_000);
+	}
+}
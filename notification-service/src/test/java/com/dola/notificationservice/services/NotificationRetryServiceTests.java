@@ -0,0 +1,82 @@
+package com.dola.notificationservice.services;
+
+import com.dola.notificationservice.entities.Notification;
+import com.dola.notificationservice.repositories.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// Retry sweep selection tests (against the H2 schema)
+// ===========================================================================================
+// WHY: a notification the sweep has just re-queued is PENDING again; if the grace period
+// were measured from createdAt, the next sweep would pick it up while it is still queued
+// and deliver it twice
+@SpringBootTest
+class NotificationRetryServiceTests {
+
+	private static final int MAX_ATTEMPTS = 5;
+	private static final long GRACE_SECONDS = 300;
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private NotificationService notificationService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		notificationRepository.deleteAll();
+	}
+
+	@Test
+	void requeuedNotificationIsNotPickedUpByTheNextSweep() {
+		Notification failed = new Notification(7_001L, 42L, "Order confirmed", "EMAIL", "FAILED");
+		failed.setCreatedAt(LocalDateTime.now().minusHours(1));
+		failed.setQueuedAt(failed.getCreatedAt());
+		notificationRepository.save(failed);
+
+		// First sweep: what NotificationRetryService.retryPage does inside its page transaction
+		List<Notification> firstSweep = transactionTemplate.execute(status -> {
+			List<Notification> page = findRetryable();
+			page.forEach(notificationService::prepareRedelivery);
+			return page;
+		});
+		assertEquals(1, firstSweep.size());
+
+		// WHY: still PENDING in the delivery queue, created an hour ago - but queued just now
+		assertEquals(List.of(), transactionTemplate.execute(status -> findRetryable()));
+		Notification requeued = notificationRepository.findById(failed.getId()).orElseThrow();
+		assertEquals("PENDING", requeued.getStatus());
+		assertEquals(1, requeued.getRetryCount());
+	}
+
+	@Test
+	void notificationStuckPendingPastTheGracePeriodIsPickedUp() {
+		Notification stuck = new Notification(7_002L, 42L, "Order confirmed", "EMAIL", "PENDING");
+		stuck.setQueuedAt(LocalDateTime.now().minusSeconds(GRACE_SECONDS + 60));
+		notificationRepository.save(stuck);
+		Notification inFlight = new Notification(7_003L, 42L, "Order confirmed", "EMAIL", "PENDING");
+		notificationRepository.save(inFlight);
+
+		List<Notification> page = transactionTemplate.execute(status -> findRetryable());
+
+		assertEquals(List.of(stuck.getId()), page.stream().map(Notification::getId).toList());
+	}
+
+	private List<Notification> findRetryable() {
+		return notificationRepository.findRetryable(0, MAX_ATTEMPTS,
+				LocalDateTime.now().minusSeconds(GRACE_SECONDS), PageRequest.of(0, 100));
+	}
+}
@@ -0,0 +1,51 @@
+package com.dola.notificationservice.templates;
+
+import com.dola.events.OrderCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// CompiledTemplate tests
+// ===========================================================================================
+// WHY: templates are compiled once and then trusted for every message - a placeholder typo
+// has to fail at load time, and the PUSH payload must stay valid JSON whatever the product name
+class CompiledTemplateTests {
+
+	private final OrderCreatedEvent event =
+			new OrderCreatedEvent(7L, 42L, "Laptop", 999.5, 1999.0, "PENDING");
+
+	@Test
+	void rendersLiteralsAndFields() {
+		CompiledTemplate<OrderCreatedEvent> template = CompiledTemplate.compile(
+				"Order #${orderId} created for user #${userId}. Product: ${productName}",
+				OrderTemplateFields.FIELDS, false);
+
+		assertEquals("Order #7 created for user #42. Product: Laptop", template.render(event));
+	}
+
+	@Test
+	void amountsHaveTwoDecimals() {
+		CompiledTemplate<OrderCreatedEvent> template = CompiledTemplate.compile(
+				"${productPrice} / ${total}", OrderTemplateFields.FIELDS, false);
+
+		assertEquals("999.50 / 1999.00", template.render(event));
+	}
+
+	@Test
+	void unknownPlaceholderFailsCompilation() {
+		assertThrows(IllegalArgumentException.class,
+				() -> CompiledTemplate.compile("Hi ${userName}", OrderTemplateFields.FIELDS, false));
+		assertThrows(IllegalArgumentException.class,
+				() -> CompiledTemplate.compile("Hi ${userId", OrderTemplateFields.FIELDS, false));
+	}
+
+	@Test
+	void jsonTemplatesEscapeValuesOnly() {
+		CompiledTemplate<OrderCreatedEvent> template = CompiledTemplate.compile(
+				"{\"body\":\"${productName}\",\"orderId\":${orderId}}", OrderTemplateFields.FIELDS, true);
+		event.setProductName("27\" \"Pro\" Monitor\n");
+
+		assertEquals("{\"body\":\"27\\\" \\\"Pro\\\" Monitor\\n\",\"orderId\":7}", template.render(event));
+	}
+}
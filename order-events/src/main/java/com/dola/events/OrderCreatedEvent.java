@@ -1,10 +1,11 @@
-package com.dola.orderservice.events;
+package com.dola.events;
 
 import java.time.LocalDateTime;
 
 /**
  * Event emitted when an order is created
- * This event is published to Kafka and consumed by notification-service
+ * Published to Kafka by order-service and consumed by notification-service.
+ * Shared by both services so producer and consumer can never drift apart.
  *
  * Contains all information notification-service needs
  * (Event Enrichment pattern - no need for additional API calls)
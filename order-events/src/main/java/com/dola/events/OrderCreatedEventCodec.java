@@ -0,0 +1,212 @@
+package com.dola.events;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Compact, schema-versioned binary encoding for OrderCreatedEvent
+ *
+ * Layout (version 1):
+ *   byte    MAGIC (0x0B - never the first byte of a JSON document)
+ *   byte    VERSION
+ *   byte    presence bits, one per field below (null fields are not written)
+ *   varlong orderId          (zig-zag)
+ *   varlong userId           (zig-zag)
+ *   string  productName      (varint length + UTF-8)
+ *   double  productPrice     (8 bytes, big-endian)
+ *   double  total            (8 bytes, big-endian)
+ *   string  status           (varint length + UTF-8)
+ *   varlong createdAt day    (zig-zag epoch day)
+ *   varlong createdAt nanos  (nano of day)
+ *
+ * Evolution rule: new fields are only ever appended with a new presence bit and a
+ * higher VERSION. Decoders read the fields they know and ignore trailing bytes,
+ * so an old consumer can read a newer producer's events.
+ */
+public final class OrderCreatedEventCodec {
+
+    public static final byte MAGIC = 0x0B;
+    public static final byte VERSION = 1;
+
+    private static final int ORDER_ID = 1;
+    private static final int USER_ID = 1 << 1;
+    private static final int PRODUCT_NAME = 1 << 2;
+    private static final int PRODUCT_PRICE = 1 << 3;
+    private static final int TOTAL = 1 << 4;
+    private static final int STATUS = 1 << 5;
+    private static final int CREATED_AT = 1 << 6;
+
+    private OrderCreatedEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(OrderCreatedEvent event) {
+        byte[] productName = utf8(event.getProductName());
+        byte[] status = utf8(event.getStatus());
+
+        int presence = 0;
+        if (event.getOrderId() != null) presence |= ORDER_ID;
+        if (event.getUserId() != null) presence |= USER_ID;
+        if (productName != null) presence |= PRODUCT_NAME;
+        if (event.getProductPrice() != null) presence |= PRODUCT_PRICE;
+        if (event.getTotal() != null) presence |= TOTAL;
+        if (status != null) presence |= STATUS;
+        if (event.getCreatedAt() != null) presence |= CREATED_AT;
+
+        Writer out = new Writer(48 + (productName == null ? 0 : productName.length)
+                + (status == null ? 0 : status.length));
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(presence);
+        if ((presence & ORDER_ID) != 0) out.writeVarLong(zigZag(event.getOrderId()));
+        if ((presence & USER_ID) != 0) out.writeVarLong(zigZag(event.getUserId()));
+        if ((presence & PRODUCT_NAME) != 0) out.writeBytes(productName);
+        if ((presence & PRODUCT_PRICE) != 0) out.writeDouble(event.getProductPrice());
+        if ((presence & TOTAL) != 0) out.writeDouble(event.getTotal());
+        if ((presence & STATUS) != 0) out.writeBytes(status);
+        if ((presence & CREATED_AT) != 0) {
+            out.writeVarLong(zigZag(event.getCreatedAt().toLocalDate().toEpochDay()));
+            out.writeVarLong(event.getCreatedAt().toLocalTime().toNanoOfDay());
+        }
+        return out.toByteArray();
+    }
+
+    public static OrderCreatedEvent decode(byte[] data) {
+        if (!isBinary(data) || data.length < 3) {
+            throw new IllegalArgumentException("Not a binary OrderCreatedEvent");
+        }
+        if (data[1] < 1) {
+            throw new IllegalArgumentException("Unsupported OrderCreatedEvent version: " + data[1]);
+        }
+
+        Reader in = new Reader(data, 3);
+        int presence = data[2] & 0xFF;
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        if ((presence & ORDER_ID) != 0) event.setOrderId(unZigZag(in.readVarLong()));
+        if ((presence & USER_ID) != 0) event.setUserId(unZigZag(in.readVarLong()));
+        if ((presence & PRODUCT_NAME) != 0) event.setProductName(in.readString());
+        if ((presence & PRODUCT_PRICE) != 0) event.setProductPrice(in.readDouble());
+        if ((presence & TOTAL) != 0) event.setTotal(in.readDouble());
+        if ((presence & STATUS) != 0) event.setStatus(in.readString());
+        if ((presence & CREATED_AT) != 0) {
+            long epochDay = unZigZag(in.readVarLong());
+            long nanoOfDay = in.readVarLong();
+            event.setCreatedAt(LocalDateTime.of(LocalDate.ofEpochDay(epochDay), LocalTime.ofNanoOfDay(nanoOfDay)));
+        }
+        // Fields added by later versions follow here and are intentionally ignored
+        return event;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeDouble(double value) {
+            ensureCapacity(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in OrderCreatedEvent");
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (readByte() & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("Truncated OrderCreatedEvent");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated OrderCreatedEvent");
+            }
+            return data[position++];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.dola.events;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka Deserializer for OrderCreatedEvent
+ * Reads both wire formats: binary records (first byte OrderCreatedEventCodec.MAGIC) are
+ * decoded without reflection; anything else is treated as JSON from an older producer.
+ * Type headers are ignored - the target type is always OrderCreatedEvent.
+ */
+public class OrderCreatedEventDeserializer implements Deserializer<OrderCreatedEvent> {
+
+    private final ObjectMapper objectMapper;
+
+    public OrderCreatedEventDeserializer() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public OrderCreatedEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (OrderCreatedEventCodec.isBinary(data)) {
+                return OrderCreatedEventCodec.decode(data);
+            }
+            return objectMapper.readValue(data, OrderCreatedEvent.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new SerializationException("Cannot deserialize OrderCreatedEvent from topic " + topic, e);
+        }
+    }
+}
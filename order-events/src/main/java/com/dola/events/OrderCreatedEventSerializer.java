@@ -0,0 +1,72 @@
+package com.dola.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Kafka Serializer for OrderCreatedEvent
+ *
+ * "binary" (default) writes OrderCreatedEventCodec's compact format.
+ * "json" writes the same JSON the services used before, for mixed-version rollouts:
+ * keep producers on json until every consumer runs OrderCreatedEventDeserializer,
+ * then switch them to binary.
+ */
+public class OrderCreatedEventSerializer implements Serializer<OrderCreatedEvent> {
+
+    public static final String FORMAT_CONFIG = "order.events.format";
+    public static final String FORMAT_BINARY = "binary";
+    public static final String FORMAT_JSON = "json";
+
+    private final ObjectMapper objectMapper;
+    private boolean binary;
+
+    public OrderCreatedEventSerializer() {
+        this(FORMAT_BINARY);
+    }
+
+    public OrderCreatedEventSerializer(String format) {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.binary = isBinary(format);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object format = configs.get(FORMAT_CONFIG);
+        if (format != null) {
+            this.binary = isBinary(format.toString());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderCreatedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        if (binary) {
+            return OrderCreatedEventCodec.encode(event);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Cannot serialize OrderCreatedEvent for Order ID: " + event.getOrderId(), e);
+        }
+    }
+
+    private static boolean isBinary(String format) {
+        if (FORMAT_BINARY.equalsIgnoreCase(format)) {
+            return true;
+        }
+        if (FORMAT_JSON.equalsIgnoreCase(format)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown " + FORMAT_CONFIG + ": " + format);
+    }
+}
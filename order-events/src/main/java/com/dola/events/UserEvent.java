@@ -0,0 +1,55 @@
+package com.dola.events;
+
+/**
+ * Event emitted when a user is created or deleted
+ * Published by user-service to the log-compacted user-events topic, keyed by user id,
+ * so the topic always holds the latest event of every user. order-service replays it
+ * into its local set of known user ids (UserIdReplica).
+ */
+public class UserEvent {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+
+    private Type type;
+    private Long userId;
+
+    public UserEvent() {
+    }
+
+    public UserEvent(Type type, Long userId) {
+        this.type = type;
+        this.userId = userId;
+    }
+
+    public static UserEvent created(Long userId) {
+        return new UserEvent(Type.CREATED, userId);
+    }
+
+    public static UserEvent deleted(Long userId) {
+        return new UserEvent(Type.DELETED, userId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    @Override
+    public String toString() {
+        return "UserEvent{type=" + type + ", userId=" + userId + '}';
+    }
+}
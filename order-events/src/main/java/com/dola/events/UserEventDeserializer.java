@@ -0,0 +1,35 @@
+package com.dola.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka Deserializer for UserEvent (format described in UserEventSerializer)
+ * A null value (tombstone) stays null.
+ */
+public class UserEventDeserializer implements Deserializer<UserEvent> {
+
+    private static final UserEvent.Type[] TYPES = UserEvent.Type.values();
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < UserEventSerializer.LENGTH || data[0] != UserEventSerializer.MAGIC) {
+            throw new SerializationException("Not a UserEvent on topic " + topic);
+        }
+        if (data[1] < 1) {
+            throw new SerializationException("Unsupported UserEvent version: " + data[1]);
+        }
+        int type = data[2] & 0xFF;
+        if (type >= TYPES.length) {
+            throw new SerializationException("Unknown UserEvent type: " + type);
+        }
+        long userId = 0;
+        for (int i = 0; i < 8; i++) {
+            userId = (userId << 8) | (data[3 + i] & 0xFF);
+        }
+        return new UserEvent(TYPES[type], userId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.dola.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka Serializer for UserEvent
+ *
+ * Layout (version 1, fixed 11 bytes):
+ *   byte  MAGIC (0x0C)
+ *   byte  VERSION
+ *   byte  type (Type ordinal - new types are only ever appended)
+ *   long  userId (8 bytes, big-endian)
+ *
+ * Later versions may append fields; UserEventDeserializer ignores trailing bytes.
+ */
+public class UserEventSerializer implements Serializer<UserEvent> {
+
+    public static final byte MAGIC = 0x0C;
+    public static final byte VERSION = 1;
+    static final int LENGTH = 11;
+
+    @Override
+    public byte[] serialize(String topic, UserEvent event) {
+        if (event == null) {
+            return null;
+        }
+        if (event.getType() == null || event.getUserId() == null) {
+            throw new SerializationException("UserEvent needs a type and a userId: " + event);
+        }
+        byte[] data = new byte[LENGTH];
+        data[0] = MAGIC;
+        data[1] = VERSION;
+        data[2] = (byte) event.getType().ordinal();
+        long userId = event.getUserId();
+        for (int i = 0; i < 8; i++) {
+            data[3 + i] = (byte) (userId >>> (56 - 8 * i));
+        }
+        return data;
+    }
+}
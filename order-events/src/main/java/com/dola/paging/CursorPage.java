@@ -0,0 +1,111 @@
+package com.dola.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Response body for keyset-paginated lists (GET /users, /orders, /notifications)
+ * nextCursor is null on the last page; otherwise pass it back as ?cursor= for the next one.
+ * The cursor is opaque to clients - it encodes the sort key of the last row of the page:
+ * its id, or (date, id) for lists sorted by a timestamp such as the order search.
+ */
+public class CursorPage<T> {
+
+    private static final String CURSOR_PREFIX = "id:";
+    private static final String DATE_CURSOR_PREFIX = "od:";
+
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Build a page from up to limit + 1 rows in id order; the extra row only tells
+     * whether there is a next page and is not returned
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, ToLongFunction<T> id) {
+        return withCursor(rows, limit, last -> encodeCursor(id.applyAsLong(last)));
+    }
+
+    /**
+     * As of, with the cursor built from the last returned row by cursorOf
+     */
+    public static <T> CursorPage<T> withCursor(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The id to continue after; 0 for the first page
+     * Throws IllegalArgumentException for a cursor this service did not issue
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!decoded.startsWith(CURSOR_PREFIX)) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+    }
+
+    public static String encodeCursor(LocalDateTime lastDate, long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((DATE_CURSOR_PREFIX + lastDate + "," + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The (date, id) to continue before; null for the first page
+     * Throws IllegalArgumentException for a cursor this service did not issue
+     */
+    public static DateCursor decodeDateCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int comma = decoded.lastIndexOf(',');
+        if (!decoded.startsWith(DATE_CURSOR_PREFIX) || comma < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new DateCursor(LocalDateTime.parse(decoded.substring(DATE_CURSOR_PREFIX.length(), comma)),
+                    Long.parseLong(decoded.substring(comma + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sort key of the last row of a page sorted by (date, id)
+     */
+    public record DateCursor(LocalDateTime date, long id) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.dola.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// OrderCreatedEvent wire format tests
+// ===========================================================================================
+// WHY: order-service produces and notification-service consumes these bytes, possibly
+// running different versions during a rollout - both formats must round-trip exactly
+class OrderCreatedEventCodecTests {
+
+	@Test
+	void binaryRoundTripKeepsEveryField() {
+		OrderCreatedEvent event = new OrderCreatedEvent(123456L, 42L, "Laptop Pro", 999.99, 1999.98, "PENDING");
+
+		OrderCreatedEvent decoded = OrderCreatedEventCodec.decode(OrderCreatedEventCodec.encode(event));
+
+		assertEquals(event.getOrderId(), decoded.getOrderId());
+		assertEquals(event.getUserId(), decoded.getUserId());
+		assertEquals(event.getProductName(), decoded.getProductName());
+		assertEquals(event.getProductPrice(), decoded.getProductPrice());
+		assertEquals(event.getTotal(), decoded.getTotal());
+		assertEquals(event.getStatus(), decoded.getStatus());
+		assertEquals(event.getCreatedAt(), decoded.getCreatedAt());
+	}
+
+	@Test
+	void nullFieldsStayNull() {
+		OrderCreatedEvent decoded = OrderCreatedEventCodec.decode(OrderCreatedEventCodec.encode(new OrderCreatedEvent()));
+
+		assertNull(decoded.getOrderId());
+		assertNull(decoded.getProductName());
+		assertNull(decoded.getCreatedAt());
+	}
+
+	@Test
+	void binaryIsSmallerThanJson() {
+		OrderCreatedEvent event = new OrderCreatedEvent(123456L, 42L, "Laptop Pro", 999.99, 1999.98, "PENDING");
+
+		byte[] binary = new OrderCreatedEventSerializer(OrderCreatedEventSerializer.FORMAT_BINARY).serialize("order-events", event);
+		byte[] json = new OrderCreatedEventSerializer(OrderCreatedEventSerializer.FORMAT_JSON).serialize("order-events", event);
+
+		assertTrue(binary.length < json.length / 2, "binary=" + binary.length + " json=" + json.length);
+	}
+
+	@Test
+	void deserializerReadsBothFormats() {
+		// WHY: consumers are upgraded first, so they must still understand JSON from old producers
+		OrderCreatedEventDeserializer deserializer = new OrderCreatedEventDeserializer();
+		OrderCreatedEvent event = new OrderCreatedEvent(7L, 3L, "Phone", 10.0, 20.0, "PENDING");
+
+		byte[] json = new OrderCreatedEventSerializer(OrderCreatedEventSerializer.FORMAT_JSON).serialize("order-events", event);
+		byte[] binary = new OrderCreatedEventSerializer(OrderCreatedEventSerializer.FORMAT_BINARY).serialize("order-events", event);
+
+		assertEquals(7L, deserializer.deserialize("order-events", json).getOrderId());
+		assertEquals(7L, deserializer.deserialize("order-events", binary).getOrderId());
+	}
+
+	@Test
+	void decoderIgnoresFieldsFromNewerVersions() {
+		byte[] encoded = OrderCreatedEventCodec.encode(new OrderCreatedEvent(1L, 2L, "Book", 5.0, 5.0, "PENDING"));
+		byte[] trailing = "future-field".getBytes(StandardCharsets.UTF_8);
+		byte[] newer = new byte[encoded.length + trailing.length];
+		System.arraycopy(encoded, 0, newer, 0, encoded.length);
+		System.arraycopy(trailing, 0, newer, encoded.length, trailing.length);
+		newer[1] = 2;
+
+		assertEquals("Book", OrderCreatedEventCodec.decode(newer).getProductName());
+	}
+}
@@ -0,0 +1,43 @@
+package com.dola.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// UserEvent wire format tests
+// ===========================================================================================
+// WHY: user-service writes these bytes to a compacted topic that order-service replays from
+// the beginning on every start - records written years ago must still decode
+class UserEventSerializerTests {
+
+	private final UserEventSerializer serializer = new UserEventSerializer();
+	private final UserEventDeserializer deserializer = new UserEventDeserializer();
+
+	@Test
+	void roundTripKeepsTypeAndId() {
+		for (UserEvent event : new UserEvent[]{UserEvent.created(1L), UserEvent.deleted(Long.MAX_VALUE), UserEvent.created(-7L)}) {
+			UserEvent decoded = deserializer.deserialize("user-events", serializer.serialize("user-events", event));
+
+			assertEquals(event.getType(), decoded.getType());
+			assertEquals(event.getUserId(), decoded.getUserId());
+		}
+	}
+
+	@Test
+	void trailingBytesFromNewerVersionsAreIgnored() {
+		byte[] data = Arrays.copyOf(serializer.serialize("user-events", UserEvent.created(42L)), 20);
+		data[1] = 2;
+
+		assertEquals(42L, deserializer.deserialize("user-events", data).getUserId());
+	}
+
+	@Test
+	void tombstoneStaysNullAndGarbageIsRejected() {
+		assertNull(deserializer.deserialize("user-events", null));
+		assertThrows(SerializationException.class, () -> deserializer.deserialize("user-events", new byte[]{'{', '}'}));
+	}
+}
@@ -0,0 +1,59 @@
+package com.dola.paging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// CursorPage tests
+// ===========================================================================================
+// WHY: a wrong cursor silently skips or repeats rows while a client pages through a list -
+// the cursor must round-trip exactly and the last page must not advertise a next one
+class CursorPageTests {
+
+	private static final ToLongFunction<Long> ID = Long::longValue;
+
+	@Test
+	void cursorRoundTrips() {
+		String cursor = CursorPage.encodeCursor(123_456_789L);
+
+		assertEquals(123_456_789L, CursorPage.decodeCursor(cursor));
+		assertEquals(0, CursorPage.decodeCursor(null));
+	}
+
+	@Test
+	void extraRowMeansThereIsANextPage() {
+		CursorPage<Long> page = CursorPage.of(List.of(1L, 2L, 3L), 2, ID);
+
+		assertEquals(List.of(1L, 2L), page.getItems());
+		assertEquals(2L, CursorPage.decodeCursor(page.getNextCursor()));
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		CursorPage<Long> page = CursorPage.of(List.of(1L, 2L), 2, ID);
+
+		assertEquals(List.of(1L, 2L), page.getItems());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void foreignCursorIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> CursorPage.decodeCursor("not a cursor!"));
+		assertThrows(IllegalArgumentException.class, () -> CursorPage.decodeCursor("MTIz"));
+	}
+
+	@Test
+	void dateCursorRoundTrips() {
+		LocalDateTime orderDate = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_000);
+		String cursor = CursorPage.encodeCursor(orderDate, 42L);
+
+		assertEquals(new CursorPage.DateCursor(orderDate, 42L), CursorPage.decodeDateCursor(cursor));
+		assertThrows(IllegalArgumentException.class,
+				() -> CursorPage.decodeDateCursor(CursorPage.encodeCursor(42L)));
+	}
+}
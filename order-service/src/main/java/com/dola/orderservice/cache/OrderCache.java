@@ -0,0 +1,57 @@
+package com.dola.orderservice.cache;
+
+import com.dola.orderservice.entities.Order;
+import com.dola.orderservice.metrics.OrderMetrics;
+import com.dola.orderservice.repositories.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Read-through cache of orders by id for GET /orders/{id}
+ *
+ * - Size-bounded (W-TinyLFU) with a TTL, so hot orders are served from memory and a
+ *   write made outside this instance is picked up after at most order.cache.ttl
+ * - Concurrent misses for the same id share one database load
+ * - Missing orders are not cached
+ * - OrderService invalidates saved ids after their transaction commits
+ * Hit rate etc. are exported as cache.* metrics with cache=orders.
+ */
+@Component
+public class OrderCache {
+
+    private final OrderRepository orderRepository;
+    private final Cache<Long, Order> cache;
+    private final boolean enabled;
+
+    public OrderCache(OrderRepository orderRepository,
+                      OrderMetrics orderMetrics,
+                      @Value("${order.cache.enabled:true}") boolean enabled,
+                      @Value("${order.cache.max-size:10000}") long maxSize,
+                      @Value("${order.cache.ttl:5m}") Duration ttl) {
+        this.orderRepository = orderRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        orderMetrics.monitorOrderCache(cache);
+    }
+
+    public Optional<Order> findById(Long id) {
+        if (!enabled) {
+            return orderRepository.findById(id);
+        }
+        return Optional.ofNullable(cache.get(id, key -> orderRepository.findById(key).orElse(null)));
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+}
@@ -0,0 +1,108 @@
+package com.dola.orderservice.clients;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal consecutive-failure circuit breaker
+ *
+ * CLOSED    - calls go through, consecutive failures are counted
+ * OPEN      - calls are rejected immediately until openDurationMs has passed
+ * HALF_OPEN - a single probe call is let through; success closes, failure re-opens
+ *
+ * State changes are short critical sections with no I/O inside, so they are safe
+ * to call from request threads.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong openedCount = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMs) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * Returns true if a call may be attempted now
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        successCount.incrementAndGet();
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        failureCount.incrementAndGet();
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                openedCount.incrementAndGet();
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Releases a permission without counting a success or a failure
+     * For attempts that failed locally before reaching the remote service.
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        synchronized (this) {
+            snapshot.put("state", state.name());
+            snapshot.put("consecutiveFailures", consecutiveFailures);
+        }
+        snapshot.put("successCount", successCount.get());
+        snapshot.put("failureCount", failureCount.get());
+        snapshot.put("rejectedCount", rejectedCount.get());
+        snapshot.put("openedCount", openedCount.get());
+        return snapshot;
+    }
+}
@@ -0,0 +1,145 @@
+package com.dola.orderservice.clients;
+
+/**
+ * Open-addressing hash set of primitive longs
+ *
+ * Keys live in one long[] with linear probing (8 bytes per slot, at most 60% full),
+ * instead of a HashSet&lt;Long&gt; with a boxed Long and a node per entry (~50 bytes).
+ * Removal uses backward-shift deletion, so there are no tombstones to clean up.
+ * Not thread-safe; UserIdReplica guards it with a read-write lock.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] slots;
+    private int mask;
+    private int shift;
+    private int size;
+    private int resizeAt;
+    // 0 marks an empty slot, so the key 0 is tracked on the side
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero;
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == key) {
+                return true;
+            }
+            if (slot == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the key was not present
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int i = index(key);
+        for (; slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (slots[i] == key) {
+                return false;
+            }
+        }
+        slots[i] = key;
+        if (++size > resizeAt) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the key was present
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int i = index(key);
+        for (; slots[i] != key; i = (i + 1) & mask) {
+            if (slots[i] == EMPTY) {
+                return false;
+            }
+        }
+        // Shift later keys of the same probe run back into the gap
+        int gap = i;
+        for (int j = (gap + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(slots[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                slots[gap] = slots[j];
+                gap = j;
+            }
+        }
+        slots[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes held by the slot table
+     */
+    public long memoryBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    private int index(long key) {
+        // Fibonacci hashing: sequential ids spread over the whole table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != EMPTY) {
+                int i = index(key);
+                while (slots[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD);
+        return (int) Math.max(16, Long.highestOneBit(needed - 1) << 1);
+    }
+}
@@ -0,0 +1,107 @@
+package com.dola.orderservice.clients;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of "does user X exist" answers
+ *
+ * - Size-bounded with Caffeine's W-TinyLFU eviction, so a few hot users stay resident
+ * - Positive answers live for positiveTtl, negative answers for the (shorter) negativeTtl,
+ *   so a user created right after a miss is picked up quickly
+ * - Lookups are cached as futures: concurrent callers for the same id share one in-flight call
+ * - Failed lookups (user-service unavailable) are never cached
+ */
+@Component
+public class UserExistenceCache {
+
+    private final AsyncCache<Long, Boolean> cache;
+
+    public UserExistenceCache(@Value("${user.service.cache.max-size:100000}") long maxSize,
+                              @Value("${user.service.cache.positive-ttl:10m}") Duration positiveTtl,
+                              @Value("${user.service.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(positiveTtl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached answer, or starts (or joins) a lookup through the loader
+     */
+    public CompletableFuture<Boolean> get(Long userId, Function<Long, CompletableFuture<Boolean>> loader) {
+        return cache.get(userId, (id, executor) -> loader.apply(id));
+    }
+
+    /**
+     * Returns the cached answer if one is already resolved, otherwise null
+     */
+    public Boolean getIfResolved(Long userId) {
+        CompletableFuture<Boolean> future = cache.getIfPresent(userId);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    public void put(Long userId, boolean exists) {
+        cache.put(userId, CompletableFuture.completedFuture(exists));
+    }
+
+    public void invalidate(Long userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    public AsyncCache<Long, Boolean> getCache() {
+        return cache;
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", cache.synchronous().estimatedSize());
+        snapshot.put("hits", stats.hitCount());
+        snapshot.put("misses", stats.missCount());
+        snapshot.put("hitRate", stats.hitRate());
+        snapshot.put("evictions", stats.evictionCount());
+        snapshot.put("loadFailures", stats.loadFailureCount());
+        return snapshot;
+    }
+
+    private static final class ExistenceExpiry implements Expiry<Long, Boolean> {
+
+        private final long positiveTtlNanos;
+        private final long negativeTtlNanos;
+
+        private ExistenceExpiry(long positiveTtlNanos, long negativeTtlNanos) {
+            this.positiveTtlNanos = positiveTtlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long userId, Boolean exists, long currentTime) {
+            return exists ? positiveTtlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long userId, Boolean exists, long currentTime, long currentDuration) {
+            return exists ? positiveTtlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(Long userId, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.dola.orderservice.clients;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Micro-batcher for user existence checks
+ *
+ * Lookups that arrive within windowMs of the first pending one (or until maxBatchSize
+ * distinct ids are pending) are merged into a single call to POST /users/exists.
+ * Every caller gets its own future, completed from the combined answer.
+ */
+public class UserExistsBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistsBatcher.class);
+
+    private final Function<Set<Long>, CompletableFuture<Set<Long>>> batchCall;
+    private final int maxBatchSize;
+    private final long windowMs;
+    private final ScheduledExecutorService scheduler;
+
+    private Map<Long, CompletableFuture<Boolean>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedIdCount = new AtomicLong();
+
+    public UserExistsBatcher(Function<Set<Long>, CompletableFuture<Set<Long>>> batchCall,
+                             int maxBatchSize, long windowMs) {
+        this.batchCall = batchCall;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMs = windowMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-exists-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Boolean> submit(Long userId) {
+        Map<Long, CompletableFuture<Boolean>> full = null;
+        CompletableFuture<Boolean> future;
+        synchronized (this) {
+            future = pending.computeIfAbsent(userId, id -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return future;
+    }
+
+    public void shutdown() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getBatchedIdCount() {
+        return batchedIdCount.get();
+    }
+
+    private void flush() {
+        Map<Long, CompletableFuture<Boolean>> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        send(batch);
+    }
+
+    // Caller must hold the monitor
+    private Map<Long, CompletableFuture<Boolean>> drain() {
+        Map<Long, CompletableFuture<Boolean>> batch = pending;
+        pending = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(Map<Long, CompletableFuture<Boolean>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchCount.incrementAndGet();
+        batchedIdCount.addAndGet(batch.size());
+        log.debug("Flushing user existence batch of {} ids", batch.size());
+
+        CompletableFuture<Set<Long>> call;
+        try {
+            call = batchCall.apply(batch.keySet());
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((existing, ex) -> batch.forEach((userId, future) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                future.complete(existing.contains(userId));
+            }
+        }));
+    }
+}
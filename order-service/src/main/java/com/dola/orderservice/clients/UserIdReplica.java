@@ -0,0 +1,297 @@
+package com.dola.orderservice.clients;
+
+import com.dola.events.UserEvent;
+import com.dola.events.UserEventDeserializer;
+import com.dola.orderservice.metrics.OrderMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local replica of the user ids known to user-service
+ *
+ * Replays the log-compacted user-events topic (UserCreated/UserDeleted, keyed by user id)
+ * into a LongHashSet. Every instance reads every partition from the beginning without a
+ * consumer group, so each one holds the complete set. Until the end offsets seen at
+ * startup are reached the replica reports DOWN, which keeps the instance out of the
+ * readiness group (management.endpoint.health.group.readiness).
+ *
+ * UserServiceClient answers from here first; an id not seen yet (created moments ago, or
+ * whose event is not on the topic yet) still goes to user-service over HTTP. user-service's
+ * UserEventBackfill republishes users missing from the topic - those created before it
+ * existed, or whose event was lost - after startup and every user.events.backfill.interval-ms.
+ *
+ * A failing consumer is closed and recreated with exponential backoff, resuming from the
+ * offsets already applied. If the first catch-up fails fallback-after-failures times in a
+ * row, the replica reports UP in fallback mode, so an unreachable Kafka cannot keep the
+ * instance out of readiness; it keeps reconnecting in the background.
+ */
+@Component
+@ConditionalOnProperty(name = "user.replica.enabled", havingValue = "true", matchIfMissing = true)
+public class UserIdReplica implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdReplica.class);
+
+    private final String bootstrapServers;
+    private final String topic;
+    private final Duration pollTimeout;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final int fallbackAfterFailures;
+    private final OrderMetrics orderMetrics;
+
+    private final LongHashSet userIds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Next offset to read per partition, so a recreated consumer resumes instead of replaying
+    private final Map<TopicPartition, Long> positions = new HashMap<>();
+    private volatile boolean ready;
+    private volatile boolean fallback;
+    private volatile boolean running = true;
+    private volatile long caughtUpAfterMs;
+    private volatile int consecutiveFailures;
+    private volatile String lastError;
+    private volatile Consumer<String, UserEvent> consumer;
+    private DefaultKafkaConsumerFactory<String, UserEvent> consumerFactory;
+    private Thread thread;
+
+    public UserIdReplica(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                         @Value("${user.replica.topic:user-events}") String topic,
+                         @Value("${user.replica.poll-timeout-ms:500}") long pollTimeoutMs,
+                         @Value("${user.replica.expected-users:100000}") int expectedUsers,
+                         @Value("${user.replica.retry.initial-backoff-ms:1000}") long initialBackoffMs,
+                         @Value("${user.replica.retry.max-backoff-ms:60000}") long maxBackoffMs,
+                         @Value("${user.replica.fallback-after-failures:5}") int fallbackAfterFailures,
+                         OrderMetrics orderMetrics) {
+        this.bootstrapServers = bootstrapServers;
+        this.topic = topic;
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMs);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.fallbackAfterFailures = fallbackAfterFailures;
+        this.orderMetrics = orderMetrics;
+        this.userIds = new LongHashSet(expectedUsers);
+    }
+
+    @PostConstruct
+    void start() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // No group: partitions are assigned by hand and nothing is committed
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        consumerFactory = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new UserEventDeserializer()));
+        orderMetrics.monitorUserReplica(this);
+
+        thread = new Thread(this::run, "user-id-replica");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        Consumer<String, UserEvent> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        // Ends a backoff sleep
+        thread.interrupt();
+        thread.join(5000);
+    }
+
+    /**
+     * True if user-events says the user exists
+     * False means "not seen yet", not "does not exist" - callers fall back to user-service
+     */
+    public boolean contains(long userId) {
+        lock.readLock().lock();
+        try {
+            return userIds.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return userIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return userIds.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * UP once caught up, or in fallback mode (every lookup goes to user-service) after
+     * repeated failures before that; DOWN while the first catch-up is still in progress
+     */
+    @Override
+    public Health health() {
+        Health.Builder health = ready || fallback ? Health.up() : Health.down();
+        health.withDetail("topic", topic).withDetail("userIds", size())
+                // The replica only holds users with a CREATED event on the topic
+                .withDetail("unknownIds", "checked through user-service; users without an event"
+                        + " (created before user-events, or event lost) are republished by"
+                        + " user-service's backfill (user.events.backfill.interval-ms)");
+        if (ready) {
+            health.withDetail("caughtUpAfterMs", caughtUpAfterMs);
+        } else if (fallback) {
+            health.withDetail("mode", "fallback");
+        }
+        if (consecutiveFailures > 0) {
+            health.withDetail("consecutiveFailures", consecutiveFailures).withDetail("lastError", lastError);
+        }
+        return health.build();
+    }
+
+    private void run() {
+        long started = System.currentTimeMillis();
+        while (running) {
+            try {
+                consumer = consumerFactory.createConsumer();
+                replicate(started);
+            } catch (WakeupException e) {
+                // shutdown()
+            } catch (RuntimeException e) {
+                if (running) {
+                    backOff(e);
+                }
+            } finally {
+                if (consumer != null) {
+                    consumer.close();
+                    consumer = null;
+                }
+            }
+        }
+    }
+
+    private void replicate(long started) {
+        Map<TopicPartition, Long> endOffsets = assignAll();
+        while (running) {
+            ConsumerRecords<String, UserEvent> records = consumer.poll(pollTimeout);
+            if (!records.isEmpty()) {
+                apply(records);
+            }
+            for (TopicPartition partition : endOffsets.keySet()) {
+                positions.put(partition, consumer.position(partition));
+            }
+            consecutiveFailures = 0;
+            if (!ready && caughtUp(endOffsets)) {
+                caughtUpAfterMs = System.currentTimeMillis() - started;
+                ready = true;
+                log.info("User id replica caught up with {}: {} users in {} ms", topic, size(), caughtUpAfterMs);
+            }
+        }
+    }
+
+    private void backOff(RuntimeException e) {
+        int failures = ++consecutiveFailures;
+        lastError = e.toString();
+        if (!ready && !fallback && failures >= fallbackAfterFailures) {
+            fallback = true;
+            log.error("User id replica could not catch up after {} attempts - order validation falls back"
+                    + " to user-service until it does", failures, e);
+        }
+        long delay = Math.min(maxBackoffMs, initialBackoffMs << Math.min(failures - 1, 20));
+        log.warn("User id replica failed ({} in a row), reconnecting in {} ms - {}", failures, delay, e.toString());
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // Waits for the topic to exist (user-service creates it), then reads it from the start,
+    // or from where the previous consumer stopped
+    private Map<TopicPartition, Long> assignAll() {
+        List<PartitionInfo> partitions = consumer.partitionsFor(topic, Duration.ofSeconds(10));
+        while (running && (partitions == null || partitions.isEmpty())) {
+            log.info("Waiting for topic {}", topic);
+            partitions = consumer.partitionsFor(topic, Duration.ofSeconds(10));
+        }
+        List<TopicPartition> assignment = new ArrayList<>();
+        for (PartitionInfo partition : partitions) {
+            assignment.add(new TopicPartition(topic, partition.partition()));
+        }
+        consumer.assign(assignment);
+        for (TopicPartition partition : assignment) {
+            Long position = positions.get(partition);
+            if (position == null) {
+                consumer.seekToBeginning(List.of(partition));
+            } else {
+                consumer.seek(partition, position);
+            }
+        }
+        return consumer.endOffsets(assignment);
+    }
+
+    private boolean caughtUp(Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // One write lock per poll, so readers are blocked at most once per batch
+    private void apply(ConsumerRecords<String, UserEvent> records) {
+        lock.writeLock().lock();
+        try {
+            for (ConsumerRecord<String, UserEvent> record : records) {
+                UserEvent event = record.value();
+                if (event == null) {
+                    // Undecodable (ErrorHandlingDeserializer) - skip rather than stall the replica
+                    continue;
+                }
+                if (event.getType() == UserEvent.Type.DELETED) {
+                    userIds.remove(event.getUserId());
+                } else {
+                    userIds.add(event.getUserId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,49 +1,357 @@
 package com.dola.orderservice.clients;
 
+import com.dola.orderservice.metrics.OrderMetrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.RestClientException;
+
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Component
 public class UserServiceClient {
 
+    private static final Logger log = LoggerFactory.getLogger(UserServiceClient.class);
+
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private UserExistenceCache userExistenceCache;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired(required = false)
+    private UserIdReplica userIdReplica;
+
+    @Value("${user.service.cache.enabled:true}")
+    private boolean cacheEnabled;
+
     @Value("${user.service.url:http://localhost:8081}")
     private String userServiceUrl;
 
+    @Value("${user.service.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${user.service.retry.initial-backoff-ms:100}")
+    private long initialBackoffMs;
+
+    @Value("${user.service.retry.max-backoff-ms:1000}")
+    private long maxBackoffMs;
+
+    @Value("${user.service.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${user.service.circuit-breaker.open-duration-ms:10000}")
+    private long openDurationMs;
+
+    @Value("${user.service.client.threads:16}")
+    private int clientThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${user.service.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${user.service.batching.window-ms:5}")
+    private long batchWindowMs;
+
+    @Value("${user.service.batching.max-size:100}")
+    private int batchMaxSize;
+
+    private CircuitBreaker circuitBreaker;
+    private ExecutorService executor;
+    private UserExistsBatcher batcher;
+
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong exhaustedCount = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker("user-service", failureThreshold, openDurationMs);
+        orderMetrics.monitorCircuitBreaker(circuitBreaker);
+        if (cacheEnabled) {
+            orderMetrics.monitorUserCache(userExistenceCache.getCache());
+        }
+        // With virtual threads each attempt gets its own cheap thread instead of
+        // queueing for one of clientThreads platform threads
+        executor = virtualThreadsEnabled
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(clientThreads);
+        if (batchingEnabled) {
+            batcher = new UserExistsBatcher(this::fetchExistingUserIdsAsync, batchMaxSize, batchWindowMs);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+        executor.shutdown();
+    }
+
     /**
-     * Validates if a user exists by calling user-service
-     * Implements retry logic: retries 3 times with 1 second delay
+     * Validates if a user exists
+     * Ids in the local UserIdReplica are answered without a remote call; any other id
+     * is checked with user-service. Returns false only when user-service answers 404.
+     * Throws UserServiceUnavailableException when user-service could not answer.
      */
     public boolean userExists(Long userId) {
-        int maxRetries = 3;
-        int retryCount = 0;
-
-        while (retryCount < maxRetries) {
-            try {
-                String url = userServiceUrl + "/users/" + userId;
-                Object response = restTemplate.getForObject(url, Object.class);
-                return response != null;
-            } catch (RestClientException e) {
-                retryCount++;
-                if (retryCount < maxRetries) {
-                    System.out.println("User service call failed, retrying... (" + retryCount + "/" + maxRetries + ")");
-                    try {
-                        Thread.sleep(1000); // Wait 1 second before retry
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                } else {
-                    System.out.println("User service unreachable after " + maxRetries + " retries");
-                    return false;
+        Timer.Sample sample = orderMetrics.startTimer();
+        if (knownLocally(userId)) {
+            orderMetrics.recordUserLookup(sample, "replica");
+            return true;
+        }
+        String outcome = "unavailable";
+        try {
+            boolean exists = await(userExistsAsync(userId));
+            outcome = exists ? "found" : "not_found";
+            return exists;
+        } finally {
+            orderMetrics.recordUserLookup(sample, outcome);
+        }
+    }
+
+    /**
+     * Async variant of userExists
+     * Answers come from UserExistenceCache when possible; concurrent misses for the
+     * same id share one remote call.
+     * Transport errors and 5xx are retried with exponential backoff and full jitter.
+     * Backoff delays are scheduled, not slept, so no thread is parked between attempts.
+     */
+    public CompletableFuture<Boolean> userExistsAsync(Long userId) {
+        if (knownLocally(userId)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        if (!cacheEnabled) {
+            return fetchUserExistsAsync(userId);
+        }
+        return userExistenceCache.get(userId, this::fetchUserExistsAsync);
+    }
+
+    /**
+     * Resolves which of the given user ids exist
+     * Each distinct id is resolved once, however many orders reference it.
+     * Ids in the replica or the cache are answered locally; the rest go to POST /users/exists
+     * in chunks of batching.max-size (merged by the micro-batcher when batching is on).
+     */
+    public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+        Set<Long> distinct = new HashSet<>(userIds);
+        Set<Long> existing = new HashSet<>();
+
+        if (batcher != null) {
+            List<Long> ids = new ArrayList<>(distinct);
+            List<CompletableFuture<Boolean>> lookups = new ArrayList<>(ids.size());
+            for (Long userId : ids) {
+                lookups.add(userExistsAsync(userId));
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                if (await(lookups.get(i))) {
+                    existing.add(ids.get(i));
                 }
             }
+            return existing;
+        }
+
+        List<Long> unresolved = new ArrayList<>();
+        for (Long userId : distinct) {
+            if (knownLocally(userId)) {
+                existing.add(userId);
+                continue;
+            }
+            Boolean cached = cacheEnabled ? userExistenceCache.getIfResolved(userId) : null;
+            if (cached == null) {
+                unresolved.add(userId);
+            } else if (cached) {
+                existing.add(userId);
+            }
+        }
+
+        List<List<Long>> chunks = new ArrayList<>();
+        List<CompletableFuture<Set<Long>>> lookups = new ArrayList<>();
+        for (int from = 0; from < unresolved.size(); from += batchMaxSize) {
+            List<Long> chunk = unresolved.subList(from, Math.min(from + batchMaxSize, unresolved.size()));
+            chunks.add(chunk);
+            lookups.add(fetchExistingUserIdsAsync(chunk));
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            Set<Long> found = await(lookups.get(i));
+            existing.addAll(found);
+            if (cacheEnabled) {
+                for (Long userId : chunks.get(i)) {
+                    userExistenceCache.put(userId, found.contains(userId));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Client state, cache statistics and counters, exposed through the userservice actuator endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", callCount.get());
+        stats.put("retries", retryCount.get());
+        stats.put("timeouts", timeoutCount.get());
+        stats.put("retriesExhausted", exhaustedCount.get());
+        stats.put("circuitBreaker", circuitBreaker.snapshot());
+        stats.put("cache", userExistenceCache.stats());
+        if (batcher != null) {
+            stats.put("batches", batcher.getBatchCount());
+            stats.put("batchedIds", batcher.getBatchedIdCount());
+        }
+        if (userIdReplica != null) {
+            stats.put("replicaReady", userIdReplica.isReady());
+            stats.put("replicaUserIds", userIdReplica.size());
+        }
+        return stats;
+    }
+
+    private boolean knownLocally(Long userId) {
+        return userIdReplica != null && userId != null && userIdReplica.contains(userId);
+    }
+
+    private CompletableFuture<Boolean> fetchUserExistsAsync(Long userId) {
+        if (batcher != null) {
+            return batcher.submit(userId);
+        }
+        return callWithResilience(() -> fetchUserExists(userId));
+    }
+
+    private CompletableFuture<Set<Long>> fetchExistingUserIdsAsync(Collection<Long> userIds) {
+        return callWithResilience(() -> fetchExistingUserIds(userIds));
+    }
+
+    private Set<Long> fetchExistingUserIds(Collection<Long> userIds) {
+        Long[] existing = restTemplate.postForObject(userServiceUrl + "/users/exists", userIds, Long[].class);
+        return existing == null ? Set.of() : new HashSet<>(Arrays.asList(existing));
+    }
+
+    private boolean fetchUserExists(Long userId) {
+        try {
+            // HEAD - only the status code matters; user-service answers it without loading the User
+            restTemplate.headForHeaders(userServiceUrl + "/users/" + userId);
+            return true;
+        } catch (HttpClientErrorException.NotFound e) {
+            return false;
+        }
+    }
+
+    private <T> CompletableFuture<T> callWithResilience(Supplier<T> call) {
+        callCount.incrementAndGet();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(call, 1, result);
+        return result;
+    }
+
+    private <T> void attempt(Supplier<T> call, int attempt, CompletableFuture<T> result) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            result.completeExceptionally(
+                    new UserServiceUnavailableException("Circuit breaker is open for user-service"));
+            return;
+        }
+
+        // No orTimeout here: the attempt's deadline is the HTTP client's connect/response
+        // timeout, which starts when the request is sent, not when the task was queued
+        CompletableFuture.supplyAsync(call, executor)
+                .whenComplete((value, ex) -> {
+                    if (ex == null) {
+                        circuitBreaker.onSuccess();
+                        orderMetrics.recordUserLookupAttempts(attempt);
+                        result.complete(value);
+                        return;
+                    }
+
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof HttpClientErrorException) {
+                        // user-service answered, the request itself was wrong - retrying won't help
+                        circuitBreaker.onSuccess();
+                        orderMetrics.recordUserLookupAttempts(attempt);
+                        result.completeExceptionally(cause);
+                        return;
+                    }
+                    if (isPoolLeaseTimeout(cause)) {
+                        // Waiting for one of our own pooled connections says nothing about user-service
+                        circuitBreaker.onIgnored();
+                    } else {
+                        if (isTimeout(cause)) {
+                            timeoutCount.incrementAndGet();
+                        }
+                        circuitBreaker.onFailure();
+                    }
+                    if (attempt >= maxAttempts) {
+                        exhaustedCount.incrementAndGet();
+                        orderMetrics.recordUserLookupAttempts(attempt);
+                        log.warn("User service unreachable after {} attempts - {}", attempt, cause.toString());
+                        result.completeExceptionally(new UserServiceUnavailableException(
+                                "User service unreachable after " + attempt + " attempts", cause));
+                        return;
+                    }
+
+                    retryCount.incrementAndGet();
+                    orderMetrics.userLookupRetried();
+                    long delay = backoffDelayMs(attempt);
+                    log.info("User service call failed, retrying in {} ms... ({}/{})", delay, attempt, maxAttempts);
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor)
+                            .execute(() -> attempt(call, attempt + 1, result));
+                });
+    }
+
+    private static boolean isPoolLeaseTimeout(Throwable e) {
+        return e.getCause() instanceof ConnectionRequestTimeoutException;
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        Throwable cause = e.getCause();
+        return cause instanceof HttpTimeoutException || cause instanceof InterruptedIOException;
+    }
+
+    /**
+     * Exponential backoff with full jitter: random delay in [0, min(max, initial * 2^(attempt-1))]
+     */
+    private long backoffDelayMs(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
-        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.dola.orderservice.clients;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes UserServiceClient state at /actuator/userservice
+ * (circuit breaker state, call/retry/timeout counters)
+ */
+@Component
+@Endpoint(id = "userservice")
+public class UserServiceClientEndpoint {
+
+    private final UserServiceClient userServiceClient;
+
+    public UserServiceClientEndpoint(UserServiceClient userServiceClient) {
+        this.userServiceClient = userServiceClient;
+    }
+
+    @ReadOperation
+    public Map<String, Object> userServiceClient() {
+        return userServiceClient.stats();
+    }
+}
@@ -0,0 +1,16 @@
+package com.dola.orderservice.clients;
+
+/**
+ * Thrown when user-service could not answer - retries exhausted or the circuit breaker is open
+ * This is deliberately different from "user not found", which is a normal 404 answer
+ */
+public class UserServiceUnavailableException extends RuntimeException {
+
+    public UserServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public UserServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,114 @@
+package com.dola.orderservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP client used for inter-service calls (order-service -> user-service)
+ *
+ * Default: Apache HttpClient 5 with a bounded, keep-alive connection pool, so a
+ * userExists call reuses a warm connection instead of paying TCP setup each time.
+ * Optional: JDK HttpClient speaking HTTP/2, which multiplexes all calls over a
+ * single connection (user-service then needs server.http2.enabled=true).
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${user.service.connect-timeout-ms:500}")
+    private long connectTimeoutMs;
+
+    @Value("${user.service.read-timeout-ms:1000}")
+    private long readTimeoutMs;
+
+    @Value("${user.service.http.max-total:200}")
+    private int maxTotal;
+
+    @Value("${user.service.http.max-per-route:100}")
+    private int maxPerRoute;
+
+    @Value("${user.service.http.lease-timeout-ms:250}")
+    private long leaseTimeoutMs;
+
+    @Value("${user.service.http.keep-alive-seconds:15}")
+    private long keepAliveSeconds;
+
+    @Value("${user.service.http.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${user.service.http.http2-enabled:false}")
+    private boolean http2Enabled;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager userServiceConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient userServiceHttpClient(PoolingHttpClientConnectionManager userServiceConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(userServiceConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // How long to wait for a pooled connection - pool saturation fails fast
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                // Keep connections a bit shorter than Tomcat's keep-alive timeout on user-service,
+                // so we never reuse one the server is about to close
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSeconds))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient userServiceHttpClient) {
+        ClientHttpRequestFactory requestFactory;
+        if (http2Enabled) {
+            HttpClient jdkClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .build();
+            JdkClientHttpRequestFactory jdkRequestFactory = new JdkClientHttpRequestFactory(jdkClient);
+            jdkRequestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+            requestFactory = jdkRequestFactory;
+        } else {
+            requestFactory = new HttpComponentsClientHttpRequestFactory(userServiceHttpClient);
+        }
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Pool gauges: httpcomponents.httpclient.pool.total.connections{state=leased|available},
+     * httpcomponents.httpclient.pool.total.pending and the configured maximums
+     */
+    @Bean
+    public MeterBinder userServicePoolMetrics(PoolingHttpClientConnectionManager userServiceConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(userServiceConnectionManager, "user-service");
+    }
+}
@@ -1,9 +1,7 @@
 package com.dola.orderservice.config;
 
-import com.dola.orderservice.events.OrderCreatedEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.dola.events.OrderCreatedEvent;
+import com.dola.events.OrderCreatedEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,7 +10,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,19 +20,28 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${order.events.format:binary}")
+    private String eventFormat;
+
+    @Value("${order.kafka.producer.linger-ms:5}")
+    private int lingerMs;
+
+    @Value("${order.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
     @Bean
     public ProducerFactory<String, OrderCreatedEvent> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // A few ms of linger lets bulk publishes (POST /orders/batch) fill producer batches
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        JsonSerializer<OrderCreatedEvent> jsonSerializer = new JsonSerializer<>(objectMapper);
+        // Compact binary encoding by default; "json" keeps the old wire format for mixed-version rollouts
+        OrderCreatedEventSerializer eventSerializer = new OrderCreatedEventSerializer(eventFormat);
 
-        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), jsonSerializer);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), eventSerializer);
     }
 
     @Bean
@@ -0,0 +1,24 @@
+package com.dola.orderservice.config;
+
+import com.dola.orderservice.limits.ConcurrencyLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public WebConfig(ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+    }
+
+    /**
+     * Only handlers annotated with @AdaptiveLimit are limited
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/orders/**");
+    }
+}
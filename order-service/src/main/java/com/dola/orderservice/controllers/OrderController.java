@@ -1,12 +1,40 @@
 package com.dola.orderservice.controllers;
 
+import com.dola.orderservice.cache.OrderCache;
 import com.dola.orderservice.entities.Order;
+import com.dola.orderservice.limits.AdaptiveLimit;
 import com.dola.orderservice.repositories.OrderRepository;
 import com.dola.orderservice.clients.UserServiceClient;
-import com.dola.orderservice.events.OrderCreatedEvent;
-import com.dola.orderservice.events.OrderEventPublisher;
+import com.dola.orderservice.clients.UserServiceUnavailableException;
+import com.dola.orderservice.metrics.OrderMetrics;
+import com.dola.orderservice.services.OrderCommitTimeoutException;
+import com.dola.orderservice.services.OrderService;
+import com.dola.paging.CursorPage;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/orders")
@@ -19,54 +47,206 @@ public class OrderController {
     private UserServiceClient userServiceClient;
 
     @Autowired
-    private OrderEventPublisher orderEventPublisher;
+    private OrderService orderService;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${order.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${order.list.default-limit:100}")
+    private int defaultListLimit;
+
+    @Value("${order.list.max-limit:1000}")
+    private int maxListLimit;
+
+    /**
+     * Create one order
+     * Behind the "create" adaptive concurrency limit: over it, callers get 429 with Retry-After
+     */
     @PostMapping
+    @AdaptiveLimit("create")
     public Object createOrder(@RequestBody Order order) {
-        // Validate user exists by calling user-service
-        boolean userExists = userServiceClient.userExists(order.getUserId());
+        Timer.Sample sample = orderMetrics.startTimer();
+        String outcome = "error";
+        try {
+            // Validate user exists by calling user-service
+            boolean userExists = userServiceClient.userExists(order.getUserId());
+
+            if (!userExists) {
+                outcome = "rejected";
+                orderMetrics.orderRejected("user_not_found");
+                return new ErrorResponse("User not found", "Cannot create order for non-existent user");
+            }
 
-        if (!userExists) {
-            return new ErrorResponse("User not found", "Cannot create order for non-existent user");
+            // User exists, create the order - the OrderCreatedEvent is written to the outbox
+            // in the same transaction and published to Kafka by OutboxRelay
+            Order saved = orderService.createOrder(order);
+            outcome = "created";
+            return saved;
+        } finally {
+            orderMetrics.recordCreateOrder(sample, outcome);
         }
+    }
 
-        // User exists, create the order
-        Order savedOrder = orderRepository.save(order);
-
-        System.out.println("DEBUG: Order saved with ID: " + savedOrder.getId());
-        System.out.println("DEBUG: orderEventPublisher is: " + orderEventPublisher);
-
-
-
-        // ✨ NEW: Emit OrderCreatedEvent to Kafka
-        OrderCreatedEvent event = new OrderCreatedEvent(
-                savedOrder.getId(),
-                savedOrder.getUserId(),
-                savedOrder.getProductName(),
-                savedOrder.getProductPrice(),
-                savedOrder.getTotal(),
-                savedOrder.getStatus()
-        );
-// Then call the publisher
-        if (orderEventPublisher != null) {
-            System.out.println("DEBUG: About to publish event");
-            orderEventPublisher.publishOrderCreatedEvent(event);
-            System.out.println("DEBUG: Event published");
-        } else {
-            System.out.println("DEBUG: orderEventPublisher is NULL!");
+    /**
+     * Create many orders in one call (marketplace imports, partner pushes)
+     * Returns a result per order, so one bad user does not fail the whole batch
+     */
+    @PostMapping("/batch")
+    @AdaptiveLimit("batch")
+    public ResponseEntity<?> createOrders(@RequestBody List<Order> orders) {
+        if (orders.size() > maxBatchSize) {
+            orderMetrics.orderRejected("batch_too_large", orders.size());
+            return ResponseEntity.badRequest().body(new ErrorResponse("Batch too large",
+                    "A batch may contain at most " + maxBatchSize + " orders"));
         }
-        return savedOrder;
+        return ResponseEntity.ok(orderService.createOrders(orders));
     }
 
+    /**
+     * Served from OrderCache (only misses go to the database) with the order's version as a strong ETag
+     * A matching If-None-Match is answered 304 from a version-only query, without
+     * loading or serializing the order.
+     */
     @GetMapping("/{id}")
-    public Order getOrder(@PathVariable Long id) {
-        return orderRepository.findById(id)
+    public ResponseEntity<Order> getOrder(@PathVariable Long id, WebRequest request) {
+        Long version = null;
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            version = orderRepository.findVersionById(id)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (request.checkNotModified(eTag(version))) {
+                return null;
+            }
+        }
+        Order order = orderCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (version != null && order.getVersion() != version) {
+            // Cached copy is older than the database (written through another instance)
+            orderCache.invalidate(List.of(id));
+            order = orderCache.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+        }
+        return ResponseEntity.ok().eTag(eTag(order.getVersion())).body(order);
     }
 
+    /**
+     * One page of orders
+     * Without filters: all orders in id order. With userId and/or status (optionally narrowed
+     * by from/to, ISO date-times, inclusive): matching orders newest first, from an index.
+     * limit defaults to order.list.default-limit and is capped at order.list.max-limit;
+     * pass the returned nextCursor as ?cursor= to get the next page
+     */
     @GetMapping
-    public Iterable<Order> getAllOrders() {
-        return orderRepository.findAll();
+    public CursorPage<Order> getAllOrders(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) Long userId,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        int pageSize = limit == null ? defaultListLimit : Math.max(1, Math.min(limit, maxListLimit));
+        if (userId != null || status != null) {
+            return orderService.searchOrders(userId, status, from, to, dateCursor(cursor), pageSize);
+        }
+        if (from != null || to != null) {
+            // A date range alone has no index to use
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Filter by userId or status to search a date range");
+        }
+        List<Order> rows = orderRepository.findByIdGreaterThanOrderByIdAsc(afterId(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Order::getId);
+    }
+
+    /**
+     * All orders (after ?cursor= if given) as newline-delimited JSON
+     * Rows are read with a JDBC fetch size and written as they arrive, so memory stays
+     * flat however large the table is. Selected with ?format=ndjson.
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOrders(@RequestParam(required = false) String cursor) {
+        long afterId = afterId(cursor);
+        StreamingResponseBody body = out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Order> orders = orderRepository.streamByIdGreaterThan(afterId)) {
+                Iterator<Order> iterator = orders.iterator();
+                while (iterator.hasNext()) {
+                    Order order = iterator.next();
+                    out.write(jsonMapper.writeValueAsBytes(order));
+                    out.write('\n');
+                    // Nothing is kept in the persistence context, so it does not grow with the table
+                    entityManager.detach(order);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long afterId(String cursor) {
+        try {
+            return CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static CursorPage.DateCursor dateCursor(String cursor) {
+        try {
+            return CursorPage.decodeDateCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    /**
+     * user-service could not answer (retries exhausted or circuit open)
+     * Reported as 503 so callers can retry, instead of a misleading "User not found"
+     */
+    @ExceptionHandler(UserServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUserServiceUnavailable(UserServiceUnavailableException e) {
+        orderMetrics.orderRejected("user_service_unavailable");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("User service unavailable", e.getMessage()));
+    }
+
+    /**
+     * A group-committed order was not confirmed in time
+     * Reported as 503; the order may still have been stored, so clients should check before retrying
+     */
+    @ExceptionHandler(OrderCommitTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleOrderCommitTimeout(OrderCommitTimeoutException e) {
+        orderMetrics.orderRejected("commit_timeout");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("Order commit timed out", e.getMessage()));
+    }
+
+    /**
+     * user-service rejected the lookup itself (a 4xx other than 404, e.g. too many ids)
+     * That is a problem with this request, not an outage, so it is reported as 400
+     */
+    @ExceptionHandler(HttpClientErrorException.class)
+    public ResponseEntity<ErrorResponse> handleUserServiceRejected(HttpClientErrorException e) {
+        orderMetrics.orderRejected("user_lookup_rejected");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("User lookup rejected", e.getStatusText()));
     }
 
     // Helper class for error responses
@@ -0,0 +1,43 @@
+package com.dola.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * Response body for POST /orders/batch
+ * One result per submitted order, in request order
+ */
+public class BatchOrderResponse {
+
+    private int requested;
+    private int created;
+    private int rejected;
+    private List<BatchOrderResult> results;
+
+    public BatchOrderResponse() {
+    }
+
+    public BatchOrderResponse(List<BatchOrderResult> results) {
+        this.results = results;
+        this.requested = results.size();
+        this.created = (int) results.stream()
+                .filter(r -> BatchOrderResult.CREATED.equals(r.getStatus()))
+                .count();
+        this.rejected = requested - created;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<BatchOrderResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,50 @@
+package com.dola.orderservice.dto;
+
+/**
+ * Outcome of a single order inside a POST /orders/batch request
+ * The index points back at the position of the order in the request body
+ */
+public class BatchOrderResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private Long orderId;
+    private String error;
+
+    public BatchOrderResult() {
+    }
+
+    public BatchOrderResult(int index, String status, Long orderId, String error) {
+        this.index = index;
+        this.status = status;
+        this.orderId = orderId;
+        this.error = error;
+    }
+
+    public static BatchOrderResult created(int index, Long orderId) {
+        return new BatchOrderResult(index, CREATED, orderId, null);
+    }
+
+    public static BatchOrderResult rejected(int index, String error) {
+        return new BatchOrderResult(index, REJECTED, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
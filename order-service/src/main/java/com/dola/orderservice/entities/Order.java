@@ -4,10 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // GET /orders?userId= : WHERE user_id = ? AND order_date >= ? ORDER BY order_date DESC, id DESC
+        // (id is part of the key so the keyset seek on (order_date, id) is served by the index alone)
+        @Index(name = "idx_orders_user_id_order_date", columnList = "userId, orderDate, id"),
+        // GET /orders?status= : same shape, for support queues such as all PENDING orders
+        @Index(name = "idx_orders_status_order_date", columnList = "status, orderDate, id")
+})
 public class Order {
+    // Pooled sequence: Hibernate reserves 50 ids per round trip, so batched
+    // inserts don't pay a nextval() per row
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private Long userId;
@@ -17,6 +26,12 @@ public class Order {
     private LocalDateTime orderDate;
     private String status;
 
+    // Bumped by Hibernate on every update; GET /orders/{id} sends it as the ETag.
+    // The column default fills rows written before it existed.
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+
     // Constructors
     public Order() {
     }
@@ -86,4 +101,12 @@ public class Order {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -1,41 +1,57 @@
 package com.dola.orderservice.events;
 
+import com.dola.events.OrderCreatedEvent;
+import com.dola.orderservice.metrics.OrderMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class OrderEventPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventPublisher.class);
 
     private final KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+    private final OrderMetrics orderMetrics;
 
     public static final String TOPIC_NAME = "order-events";
 
-    public OrderEventPublisher(KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate) {
+    public OrderEventPublisher(KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate, OrderMetrics orderMetrics) {
         this.kafkaTemplate = kafkaTemplate;
+        this.orderMetrics = orderMetrics;
     }
 
-    public void publishOrderCreatedEvent(OrderCreatedEvent event) {
+    /**
+     * Send an OrderCreatedEvent to Kafka
+     * Called by OutboxRelay, which waits on the returned future before marking the
+     * outbox row as published. Latency is recorded from send() until the broker ack
+     */
+    public CompletableFuture<SendResult<String, OrderCreatedEvent>> send(OrderCreatedEvent event) {
+        long start = System.nanoTime();
         try {
-            log.info("Publishing OrderCreatedEvent to Kafka - Order ID: {}, User ID: {}, Product: {}",
+            log.debug("Publishing OrderCreatedEvent to Kafka - Order ID: {}, User ID: {}, Product: {}",
                     event.getOrderId(), event.getUserId(), event.getProductName());
 
-            kafkaTemplate.send(TOPIC_NAME, String.valueOf(event.getOrderId()), event)
+            return kafkaTemplate.send(TOPIC_NAME, String.valueOf(event.getOrderId()), event)
                     .whenComplete((result, ex) -> {
+                        orderMetrics.recordKafkaSend(System.nanoTime() - start, ex == null);
                         if (ex != null) {
                             log.error("Failed to publish OrderCreatedEvent for Order ID: {} - {}",
                                     event.getOrderId(), ex.getMessage());
                         } else {
-                            log.info("Event published to topic: {} for Order ID: {}",
+                            log.debug("Event published to topic: {} for Order ID: {}",
                                     TOPIC_NAME, event.getOrderId());
                         }
                     });
         } catch (Exception e) {
+            orderMetrics.recordKafkaSend(System.nanoTime() - start, false);
             log.error("Error sending OrderCreatedEvent for Order ID: {} - {}",
                     event.getOrderId(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.dola.orderservice.events;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.orderservice.entities.OutboxEvent;
+import com.dola.orderservice.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes OrderCreatedEvents to the outbox table
+ * Must be called inside the transaction that saves the orders, so an order and its
+ * event are committed (or rolled back) together
+ */
+@Component
+public class OrderOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderOutbox(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public void append(List<OrderCreatedEvent> events) {
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (OrderCreatedEvent event : events) {
+            rows.add(new OutboxEvent(
+                    event.getOrderId(),
+                    OrderEventPublisher.TOPIC_NAME,
+                    String.valueOf(event.getOrderId()),
+                    write(event)
+            ));
+        }
+        outboxEventRepository.saveAll(rows);
+    }
+
+    public OrderCreatedEvent readEvent(OutboxEvent row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), OrderCreatedEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for row " + row.getId(), e);
+        }
+    }
+
+    private String write(OrderCreatedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize OrderCreatedEvent for Order ID: " + event.getOrderId(), e);
+        }
+    }
+}
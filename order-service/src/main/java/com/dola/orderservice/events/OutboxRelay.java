@@ -0,0 +1,110 @@
+package com.dola.orderservice.events;
+
+import com.dola.orderservice.entities.OutboxEvent;
+import com.dola.orderservice.repositories.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox table to the order-events topic
+ *
+ * Each poll locks up to batchSize unpublished rows (oldest first), sends them to Kafka
+ * back to back and marks the acknowledged prefix as published. A failed send leaves
+ * that row and everything after it for the next poll, so per-order ordering is kept
+ * and delivery is at-least-once.
+ */
+@Component
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderOutbox orderOutbox;
+    private final OrderEventPublisher orderEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${order.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderOutbox orderOutbox,
+                       OrderEventPublisher orderEventPublisher,
+                       TransactionTemplate transactionTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderOutbox = orderOutbox;
+        this.orderEventPublisher = orderEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            // Keep draining while batches come back full, so a backlog doesn't wait on the poll interval
+            while (relayBatch() == batchSize) {
+                log.debug("Outbox batch was full, draining next batch");
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay failed - {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox rows", deleted);
+        }
+    }
+
+    private int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> rows = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<CompletableFuture<?>> sends = new ArrayList<>(rows.size());
+            for (OutboxEvent row : rows) {
+                sends.add(orderEventPublisher.send(orderOutbox.readEvent(row)));
+            }
+
+            List<Long> published = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    log.warn("Outbox row {} not acknowledged, will retry - {}", rows.get(i).getId(), e.getMessage());
+                    break;
+                }
+                published.add(rows.get(i).getId());
+            }
+
+            if (!published.isEmpty()) {
+                outboxEventRepository.markPublished(published, LocalDateTime.now());
+            }
+            log.info("Outbox relay published {}/{} events", published.size(), rows.size());
+            return published.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+}
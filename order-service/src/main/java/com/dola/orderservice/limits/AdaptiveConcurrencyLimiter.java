@@ -0,0 +1,109 @@
+package com.dola.orderservice.limits;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to observed latency (gradient algorithm)
+ *
+ * Every completed request feeds its latency into a short and a long moving average.
+ * While the short average stays within tolerance x the long one, the limit grows by
+ * about sqrt(limit) per sample (only when the limit is actually being used); once
+ * latency climbs above that, the limit shrinks in proportion (down to half per sample).
+ * A failed request (5xx, exception) cuts the limit by failureBackoff, AIMD style.
+ * Requests over the limit are rejected, never queued.
+ *
+ * State changes are short critical sections with no I/O inside, so they are safe
+ * to call from request threads.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double failureBackoff;
+
+    private double limit;
+    private int inFlight;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double failureBackoff) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": min " + minLimit + ", max " + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.failureBackoff = failureBackoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Returns true if the request may start; every true must be followed by one release()
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Ends a request started by tryAcquire() and adjusts the limit
+     */
+    public synchronized void release(long rttNanos, boolean failed) {
+        // Utilisation is judged as it was while this request ran
+        boolean saturated = inFlight * 2 >= limit;
+        inFlight--;
+
+        if (failed) {
+            limit = Math.max(minLimit, limit * failureBackoff);
+            return;
+        }
+        if (shortRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        if (longRttNanos > 2 * shortRttNanos) {
+            // The long average still remembers an earlier slow phase - let it catch up
+            longRttNanos *= 0.95;
+        }
+        if (!saturated) {
+            // Far below the limit: latency says nothing about whether it is too high
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.dola.orderservice.limits;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method behind its own AdaptiveConcurrencyLimiter
+ * value names the endpoint in order.limit.{endpoint}.* properties and in the metrics.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdaptiveLimit {
+
+    String value();
+}
@@ -0,0 +1,103 @@
+package com.dola.orderservice.limits;
+
+import com.dola.orderservice.metrics.OrderMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Load shedding for handler methods annotated with @AdaptiveLimit
+ *
+ * Each endpoint gets its own AdaptiveConcurrencyLimiter. A request over the endpoint's
+ * current limit is answered 429 with Retry-After before the controller runs, so an
+ * overloaded instance fails fast instead of queueing requests until they time out.
+ * Per-endpoint settings (order.limit.{endpoint}.initial-limit etc.) fall back to
+ * order.limit.initial-limit etc.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String STARTED = ConcurrencyLimitInterceptor.class.getName() + ".started";
+    private static final byte[] REJECTED_BODY =
+            "{\"error\":\"Too many requests\",\"message\":\"Order service is at its concurrency limit, retry later\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final Environment environment;
+    private final OrderMetrics orderMetrics;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(Environment environment,
+                                       OrderMetrics orderMetrics,
+                                       @Value("${order.limit.enabled:true}") boolean enabled,
+                                       @Value("${order.limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.environment = environment;
+        this.orderMetrics = orderMetrics;
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        AdaptiveLimit annotation = method.getMethodAnnotation(AdaptiveLimit.class);
+        if (annotation == null) {
+            return true;
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(annotation.value(), this::createLimiter);
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(REJECTED_BODY);
+            return false;
+        }
+        request.setAttribute(LIMITER, limiter);
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER);
+        if (limiter == null) {
+            return;
+        }
+        request.removeAttribute(LIMITER);
+        long rttNanos = System.nanoTime() - (Long) request.getAttribute(STARTED);
+        // 503 from an unavailable user-service counts as a failure too
+        limiter.release(rttNanos, ex != null || response.getStatus() >= 500);
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String endpoint) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(endpoint,
+                setting(endpoint, "initial-limit", Integer.class, 20),
+                setting(endpoint, "min-limit", Integer.class, 5),
+                setting(endpoint, "max-limit", Integer.class, 500),
+                setting(endpoint, "tolerance", Double.class, 2.0),
+                setting(endpoint, "failure-backoff", Double.class, 0.9));
+        orderMetrics.monitorConcurrencyLimiter(limiter);
+        return limiter;
+    }
+
+    private <T> T setting(String endpoint, String key, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty("order.limit." + key, type, defaultValue);
+        return environment.getProperty("order.limit." + endpoint + "." + key, type, shared);
+    }
+}
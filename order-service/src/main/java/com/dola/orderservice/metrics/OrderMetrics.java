@@ -0,0 +1,169 @@
+package com.dola.orderservice.metrics;
+
+import com.dola.orderservice.clients.CircuitBreaker;
+import com.dola.orderservice.clients.UserIdReplica;
+import com.dola.orderservice.limits.AdaptiveConcurrencyLimiter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the order creation pipeline, scraped at /actuator/prometheus
+ *
+ * orders.create             total POST /orders time, tag outcome=created|rejected|error
+ * orders.user.lookup        userExists call (cache + HTTP + retries), tag outcome=replica|found|not_found|unavailable
+ * orders.user.replica.*     local user-id replica: ids held, memory, caught up (1) or bootstrapping (0)
+ * orders.user.lookup.retries / orders.user.lookup.attempts   retries and attempts per remote call
+ * orders.db.save            order + outbox insert including commit
+ * orders.group.commit.size  orders written per group commit (order.group-commit.enabled=true)
+ * orders.kafka.send         producer send until broker ack, tag result=success|failure
+ * orders.rejected           rejected orders, tag reason
+ * orders.limit.*            adaptive concurrency limit, in-flight and 429 rejections, tag endpoint
+ *
+ * All timers publish p50/p95/p99 plus a histogram, so percentiles can also be
+ * aggregated across instances with histogram_quantile().
+ */
+@Component
+public class OrderMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer dbSave;
+    private final Timer kafkaSendSuccess;
+    private final Timer kafkaSendFailure;
+    private final Counter userLookupRetries;
+    private final DistributionSummary userLookupAttempts;
+    private final DistributionSummary groupCommitSize;
+    private final ConcurrentMap<String, Timer> createOrderTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> userLookupTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.dbSave = timer("orders.db.save", "Order and outbox insert including commit").register(registry);
+        this.kafkaSendSuccess = timer("orders.kafka.send", "Kafka send until broker ack")
+                .tag("result", "success").register(registry);
+        this.kafkaSendFailure = timer("orders.kafka.send", "Kafka send until broker ack")
+                .tag("result", "failure").register(registry);
+        this.userLookupRetries = Counter.builder("orders.user.lookup.retries")
+                .description("Retried user-service calls")
+                .register(registry);
+        this.userLookupAttempts = DistributionSummary.builder("orders.user.lookup.attempts")
+                .description("Attempts needed per user-service call")
+                .register(registry);
+        this.groupCommitSize = DistributionSummary.builder("orders.group.commit.size")
+                .description("Orders written per group commit")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void recordCreateOrder(Timer.Sample sample, String outcome) {
+        sample.stop(createOrderTimers.computeIfAbsent(outcome, o ->
+                timer("orders.create", "Total POST /orders time").tag("outcome", o).register(registry)));
+    }
+
+    public void recordUserLookup(Timer.Sample sample, String outcome) {
+        sample.stop(userLookupTimers.computeIfAbsent(outcome, o ->
+                timer("orders.user.lookup", "userExists call including cache, HTTP and retries")
+                        .tag("outcome", o).register(registry)));
+    }
+
+    public void recordDbSave(Timer.Sample sample) {
+        sample.stop(dbSave);
+    }
+
+    public void recordKafkaSend(long nanos, boolean success) {
+        (success ? kafkaSendSuccess : kafkaSendFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGroupCommit(int orders) {
+        groupCommitSize.record(orders);
+    }
+
+    public void userLookupRetried() {
+        userLookupRetries.increment();
+    }
+
+    public void recordUserLookupAttempts(int attempts) {
+        userLookupAttempts.record(attempts);
+    }
+
+    public void orderRejected(String reason) {
+        orderRejected(reason, 1);
+    }
+
+    public void orderRejected(String reason, int count) {
+        rejectedCounters.computeIfAbsent(reason, r -> Counter.builder("orders.rejected")
+                .description("Orders rejected before being persisted")
+                .tag("reason", r)
+                .register(registry)).increment(count);
+    }
+
+    /**
+     * Circuit breaker state as a gauge: 0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN
+     */
+    public void monitorCircuitBreaker(CircuitBreaker circuitBreaker) {
+        Gauge.builder("orders.user.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .description("user-service circuit breaker state (0=closed, 1=open, 2=half-open)")
+                .tag("name", circuitBreaker.getName())
+                .register(registry);
+    }
+
+    public void monitorUserReplica(UserIdReplica replica) {
+        Gauge.builder("orders.user.replica.size", replica, UserIdReplica::size)
+                .description("User ids held by the local replica")
+                .register(registry);
+        Gauge.builder("orders.user.replica.memory", replica, UserIdReplica::memoryBytes)
+                .description("Bytes held by the local replica's id table")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("orders.user.replica.ready", replica, r -> r.isReady() ? 1 : 0)
+                .description("1 once the replica has caught up with user-events")
+                .register(registry);
+    }
+
+    public void monitorConcurrencyLimiter(AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("orders.limit.current", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoint", limiter.getName())
+                .register(registry);
+        Gauge.builder("orders.limit.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the limiter")
+                .tag("endpoint", limiter.getName())
+                .register(registry);
+        FunctionCounter.builder("orders.limit.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .description("Requests rejected with 429 by the limiter")
+                .tag("endpoint", limiter.getName())
+                .register(registry);
+    }
+
+    public void monitorUserCache(AsyncCache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userExistence");
+    }
+
+    public void monitorOrderCache(Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, "orders");
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram();
+    }
+}
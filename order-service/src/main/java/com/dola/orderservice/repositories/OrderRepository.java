@@ -1,7 +1,73 @@
 package com.dola.orderservice.repositories;
 
 import com.dola.orderservice.entities.Order;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Current version of an order (its ETag), without loading the entity
+     */
+    @Query("select o.version from Order o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * One keyset page: WHERE id > :afterId ORDER BY id LIMIT n, a primary-key range scan
+     */
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * All orders after an id, streamed with a JDBC fetch size
+     * Must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select o from Order o where o.id > :afterId order by o.id")
+    Stream<Order> streamByIdGreaterThan(@Param("afterId") long afterId);
+
+    /**
+     * A user's orders placed in [from, before), newest first, keyset-paged on (orderDate, id)
+     * Served by idx_orders_user_id_order_date; the row-value comparison is a single index seek
+     */
+    @Query("select o from Order o where o.userId = :userId and o.orderDate >= :from"
+            + " and (o.orderDate, o.id) < (:beforeDate, :beforeId) order by o.orderDate desc, o.id desc")
+    List<Order> findByUser(@Param("userId") Long userId,
+                           @Param("from") LocalDateTime from,
+                           @Param("beforeDate") LocalDateTime beforeDate,
+                           @Param("beforeId") long beforeId,
+                           Pageable pageable);
+
+    /**
+     * As findByUser, narrowed to one status (the user's orders are few, so status is a filter)
+     */
+    @Query("select o from Order o where o.userId = :userId and o.status = :status and o.orderDate >= :from"
+            + " and (o.orderDate, o.id) < (:beforeDate, :beforeId) order by o.orderDate desc, o.id desc")
+    List<Order> findByUserAndStatus(@Param("userId") Long userId,
+                                    @Param("status") String status,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("beforeDate") LocalDateTime beforeDate,
+                                    @Param("beforeId") long beforeId,
+                                    Pageable pageable);
+
+    /**
+     * Orders in one status, newest first, keyset-paged on (orderDate, id)
+     * Served by idx_orders_status_order_date
+     */
+    @Query("select o from Order o where o.status = :status and o.orderDate >= :from"
+            + " and (o.orderDate, o.id) < (:beforeDate, :beforeId) order by o.orderDate desc, o.id desc")
+    List<Order> findByStatus(@Param("status") String status,
+                             @Param("from") LocalDateTime from,
+                             @Param("beforeDate") LocalDateTime beforeDate,
+                             @Param("beforeId") long beforeId,
+                             Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.dola.orderservice.services;
+
+/**
+ * Thrown when a group-committed order was not confirmed within order.group-commit.timeout-ms
+ * The order may still be committed afterwards, so callers should look it up before retrying
+ */
+public class OrderCommitTimeoutException extends RuntimeException {
+
+    public OrderCommitTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,161 @@
+package com.dola.orderservice.services;
+
+import com.dola.orderservice.entities.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Group commit for single-order creation
+ *
+ * Orders submitted by concurrent requests are queued to one writer thread. It takes
+ * everything that arrives within windowMs of the first queued order (or until
+ * maxBatchSize orders are collected), writes them with one batched transaction and
+ * completes every caller's future with its saved order. While a batch commits, the
+ * next one fills up, so under load the window is rarely waited out.
+ *
+ * If a batch fails, its orders are retried one by one, so one bad order only fails
+ * its own request. If the writer thread dies (an Error), every queued order is failed
+ * and later submissions are refused, so no caller waits on an order nobody will write.
+ */
+public class OrderGroupCommitter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderGroupCommitter.class);
+
+    private final Function<List<Order>, List<Order>> writer;
+    private final IntConsumer batchListener;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final BlockingQueue<PendingOrder> queue;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public OrderGroupCommitter(Function<List<Order>, List<Order>> writer, IntConsumer batchListener,
+                               int maxBatchSize, long windowMs, int maxPending) {
+        this.writer = writer;
+        this.batchListener = batchListener;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.queue = new LinkedBlockingQueue<>(maxPending);
+        this.thread = new Thread(this::run, "order-group-commit");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue an order for the next group commit
+     * Returns null when the queue is full or shutting down - the caller then writes it itself
+     */
+    public CompletableFuture<Order> submit(Order order) {
+        PendingOrder pending = new PendingOrder(order, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            return null;
+        }
+        // Stopped while offering: take it back unless the writer or shutdown already drained it
+        if (!running && queue.remove(pending)) {
+            return null;
+        }
+        return pending.future();
+    }
+
+    /**
+     * Commit what is queued and stop the writer
+     */
+    public void shutdown(long timeoutMs) throws InterruptedException {
+        running = false;
+        thread.join(timeoutMs);
+        // Orders queued while the writer was stopping
+        List<PendingOrder> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            commit(leftover);
+        }
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    collect(batch);
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                    batch.clear();
+                }
+            }
+        } catch (Throwable e) {
+            running = false;
+            log.error("Group commit writer stopped, failing {} queued orders", batch.size() + queue.size(), e);
+            queue.drainTo(batch);
+            IllegalStateException failure = new IllegalStateException("Group commit writer stopped", e);
+            for (PendingOrder pending : batch) {
+                pending.future().completeExceptionally(failure);
+            }
+            throw e;
+        }
+    }
+
+    private void collect(List<PendingOrder> batch) throws InterruptedException {
+        PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            orders.add(pending.order());
+        }
+        try {
+            List<Order> saved = writer.apply(orders);
+            batchListener.accept(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+            log.warn("Group commit of {} orders failed, writing them one by one - {}", batch.size(), e.getMessage());
+            for (PendingOrder pending : batch) {
+                pending.order().setId(null);
+                try {
+                    pending.future().complete(writer.apply(List.of(pending.order())).get(0));
+                    batchListener.accept(1);
+                } catch (RuntimeException single) {
+                    pending.future().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private record PendingOrder(Order order, CompletableFuture<Order> future) {
+    }
+}
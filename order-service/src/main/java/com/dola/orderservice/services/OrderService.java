@@ -0,0 +1,259 @@
+package com.dola.orderservice.services;
+
+import com.dola.events.OrderCreatedEvent;
+import com.dola.orderservice.cache.OrderCache;
+import com.dola.orderservice.clients.UserServiceClient;
+import com.dola.orderservice.dto.BatchOrderResponse;
+import com.dola.orderservice.dto.BatchOrderResult;
+import com.dola.orderservice.entities.Order;
+import com.dola.orderservice.events.OrderOutbox;
+import com.dola.orderservice.metrics.OrderMetrics;
+import com.dola.orderservice.repositories.OrderRepository;
+import com.dola.paging.CursorPage;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class OrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    // Open ends of a search range; constants keep the index range scan shape for every search
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final OrderRepository orderRepository;
+    private final UserServiceClient userServiceClient;
+    private final OrderOutbox orderOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderMetrics orderMetrics;
+    private final OrderCache orderCache;
+
+    @Value("${order.group-commit.enabled:false}")
+    private boolean groupCommitEnabled;
+
+    @Value("${order.group-commit.window-ms:2}")
+    private long groupCommitWindowMs;
+
+    @Value("${order.group-commit.max-size:50}")
+    private int groupCommitMaxSize;
+
+    @Value("${order.group-commit.max-pending:10000}")
+    private int groupCommitMaxPending;
+
+    @Value("${order.group-commit.timeout-ms:5000}")
+    private long groupCommitTimeoutMs;
+
+    private OrderGroupCommitter groupCommitter;
+
+    public OrderService(OrderRepository orderRepository,
+                        UserServiceClient userServiceClient,
+                        OrderOutbox orderOutbox,
+                        TransactionTemplate transactionTemplate,
+                        OrderMetrics orderMetrics,
+                        OrderCache orderCache) {
+        this.orderRepository = orderRepository;
+        this.userServiceClient = userServiceClient;
+        this.orderOutbox = orderOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.orderMetrics = orderMetrics;
+        this.orderCache = orderCache;
+    }
+
+    @PostConstruct
+    void init() {
+        if (groupCommitEnabled) {
+            groupCommitter = new OrderGroupCommitter(this::persist, orderMetrics::recordGroupCommit,
+                    groupCommitMaxSize, groupCommitWindowMs, groupCommitMaxPending);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (groupCommitter != null) {
+            groupCommitter.shutdown(5000);
+        }
+    }
+
+    /**
+     * Persist a single, already validated order
+     * The order and its OrderCreatedEvent outbox row are written in one local
+     * transaction; OutboxRelay publishes the event to Kafka afterwards.
+     * With order.group-commit.enabled the transaction is shared with other concurrent
+     * orders (see OrderGroupCommitter); the call still returns once this order is committed,
+     * or throws OrderCommitTimeoutException after order.group-commit.timeout-ms.
+     */
+    public Order createOrder(Order order) {
+        asNew(order);
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(LocalDateTime.now());
+        }
+        if (groupCommitter != null) {
+            CompletableFuture<Order> committed = groupCommitter.submit(order);
+            if (committed != null) {
+                try {
+                    return committed.get(groupCommitTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                    }
+                    throw new IllegalStateException("Group commit failed", e.getCause());
+                } catch (TimeoutException e) {
+                    throw new OrderCommitTimeoutException("Order not committed within " + groupCommitTimeoutMs + " ms");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new OrderCommitTimeoutException("Interrupted while waiting for the order to be committed");
+                }
+            }
+        }
+        return persist(List.of(order)).get(0);
+    }
+
+    // A client-supplied id or version would turn the insert into a merge over an existing
+    // order - inside a group commit, in a transaction shared with other callers' orders
+    private static void asNew(Order order) {
+        order.setId(null);
+        order.setVersion(0);
+    }
+
+    /**
+     * Orders of a user and/or in a status, placed between from and to (both inclusive, both optional),
+     * newest first, one keyset page after the given cursor
+     * At least one of userId and status is required, so every search is an index range scan
+     * (idx_orders_user_id_order_date or idx_orders_status_order_date).
+     */
+    public CursorPage<Order> searchOrders(Long userId, String status, LocalDateTime from, LocalDateTime to,
+                                          CursorPage.DateCursor after, int limit) {
+        if (userId == null && status == null) {
+            throw new IllegalArgumentException("userId or status is required");
+        }
+        LocalDateTime lower = from == null ? EARLIEST : from;
+        LocalDateTime beforeDate = to == null ? LATEST : to;
+        long beforeId = Long.MAX_VALUE; // includes orders placed exactly at 'to'
+        if (after != null) {
+            beforeDate = after.date();
+            beforeId = after.id();
+        }
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<Order> rows;
+        if (userId != null && status != null) {
+            rows = orderRepository.findByUserAndStatus(userId, status, lower, beforeDate, beforeId, page);
+        } else if (userId != null) {
+            rows = orderRepository.findByUser(userId, lower, beforeDate, beforeId, page);
+        } else {
+            rows = orderRepository.findByStatus(status, lower, beforeDate, beforeId, page);
+        }
+        return CursorPage.withCursor(rows, limit, last -> CursorPage.encodeCursor(last.getOrderDate(), last.getId()));
+    }
+
+    /**
+     * Create many orders at once
+     * Every distinct userId is validated once, valid orders are inserted with one
+     * JDBC-batched saveAll and their events go to the outbox in the same transaction.
+     * Invalid orders are reported per item and never fail the rest of the batch.
+     */
+    public BatchOrderResponse createOrders(List<Order> orders) {
+        Set<Long> userIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order != null && order.getUserId() != null) {
+                userIds.add(order.getUserId());
+            }
+        }
+        Set<Long> existingUserIds = userServiceClient.findExistingUserIds(userIds);
+
+        BatchOrderResult[] results = new BatchOrderResult[orders.size()];
+        List<Order> accepted = new ArrayList<>(orders.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(orders.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (order == null) {
+                results[i] = BatchOrderResult.rejected(i, "Order is required");
+                orderMetrics.orderRejected("invalid");
+            } else if (order.getUserId() == null) {
+                results[i] = BatchOrderResult.rejected(i, "userId is required");
+                orderMetrics.orderRejected("invalid");
+            } else if (!existingUserIds.contains(order.getUserId())) {
+                results[i] = BatchOrderResult.rejected(i, "User not found");
+                orderMetrics.orderRejected("user_not_found");
+            } else {
+                asNew(order);
+                if (order.getOrderDate() == null) {
+                    order.setOrderDate(now);
+                }
+                accepted.add(order);
+                acceptedIndexes.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            List<Order> saved = persist(accepted);
+            for (int j = 0; j < saved.size(); j++) {
+                int index = acceptedIndexes.get(j);
+                results[index] = BatchOrderResult.created(index, saved.get(j).getId());
+            }
+        }
+
+        log.info("Batch order creation finished - requested: {}, created: {}, distinct users: {}",
+                orders.size(), accepted.size(), userIds.size());
+
+        return new BatchOrderResponse(Arrays.asList(results));
+    }
+
+    private List<Order> persist(List<Order> orders) {
+        Timer.Sample sample = orderMetrics.startTimer();
+        List<Order> persisted;
+        try {
+            persisted = transactionTemplate.execute(status -> {
+                List<Order> saved = orderRepository.saveAll(orders);
+                List<OrderCreatedEvent> events = new ArrayList<>(saved.size());
+                for (Order savedOrder : saved) {
+                    events.add(toEvent(savedOrder));
+                }
+                orderOutbox.append(events);
+                return saved;
+            });
+        } finally {
+            orderMetrics.recordDbSave(sample);
+        }
+        // After the commit, so a concurrent read cannot re-cache the old row
+        List<Long> ids = new ArrayList<>(persisted.size());
+        for (Order order : persisted) {
+            ids.add(order.getId());
+        }
+        orderCache.invalidate(ids);
+        return persisted;
+    }
+
+    private OrderCreatedEvent toEvent(Order order) {
+        return new OrderCreatedEvent(
+                order.getId(),
+                order.getUserId(),
+                order.getProductName(),
+                order.getProductPrice(),
+                order.getTotal(),
+                order.getStatus()
+        );
+    }
+}
@@ -0,0 +1,62 @@
+package com.dola.orderservice.clients;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// LongHashSet tests
+// ===========================================================================================
+// WHY: UserIdReplica answers "does this user exist" from this set - a key lost by a
+// resize or a removal would send that user's orders back to user-service, and a key
+// that survives its removal would accept orders for a deleted user
+class LongHashSetTests {
+
+	@Test
+	void behavesLikeHashSetUnderRandomAddsAndRemoves() {
+		LongHashSet set = new LongHashSet(4);
+		Set<Long> expected = new HashSet<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 200_000; i++) {
+			long key = random.nextInt(20_000) - 10;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), set.remove(key), "remove " + key);
+			} else {
+				assertEquals(expected.add(key), set.add(key), "add " + key);
+			}
+		}
+
+		assertEquals(expected.size(), set.size());
+		for (long key = -20; key < 20_010; key++) {
+			assertEquals(expected.contains(key), set.contains(key), "contains " + key);
+		}
+	}
+
+	@Test
+	void zeroIsAnOrdinaryKey() {
+		LongHashSet set = new LongHashSet();
+
+		assertFalse(set.contains(0));
+		assertTrue(set.add(0));
+		assertTrue(set.contains(0));
+		assertTrue(set.remove(0));
+		assertEquals(0, set.size());
+	}
+
+	@Test
+	void sizedTableDoesNotGrowForExpectedKeys() {
+		LongHashSet set = new LongHashSet(1000);
+		long initial = set.memoryBytes();
+
+		for (long id = 1; id <= 1000; id++) {
+			set.add(id);
+		}
+
+		assertEquals(initial, set.memoryBytes());
+	}
+}
@@ -0,0 +1,65 @@
+package com.dola.orderservice.limits;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// AdaptiveConcurrencyLimiter tests
+// ===========================================================================================
+// WHY: the limiter decides which POST /orders get a 429 - it must admit exactly up to its
+// limit, grow while latency is flat, and back off when latency or failures climb
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final long MS = 1_000_000L;
+
+	@Test
+	void rejectsBeyondTheLimitInsteadOfQueueing() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("create", 2, 1, 10, 2.0, 0.9);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(1, limiter.getRejectedCount());
+
+		limiter.release(10 * MS, false);
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void growsWhileLatencyIsFlatAndShrinksWhenItClimbs() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("create", 20, 5, 500, 2.0, 0.9);
+
+		runSaturated(limiter, 200, 10 * MS);
+		int grown = limiter.getLimit();
+		assertTrue(grown > 20, "limit after flat latency: " + grown);
+
+		runSaturated(limiter, 50, 100 * MS);
+		assertTrue(limiter.getLimit() < grown * 3 / 4, "limit after latency rose 10x: " + limiter.getLimit());
+	}
+
+	@Test
+	void failuresCutTheLimitDownToTheMinimum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("create", 20, 5, 500, 2.0, 0.5);
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(10 * MS, true);
+		}
+
+		assertEquals(5, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	// Fills the limit, then completes one request per round with the given latency
+	private static void runSaturated(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+		for (int i = 0; i < rounds; i++) {
+			while (limiter.tryAcquire()) {
+			}
+			limiter.release(rttNanos, false);
+		}
+		while (limiter.getInFlight() > 0) {
+			limiter.release(rttNanos, false);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.dola.orderservice.services;
+
+import com.dola.orderservice.entities.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// OrderGroupCommitter tests
+// ===========================================================================================
+// WHY: every POST /orders caller blocks on its future - each submitted order must end up
+// committed or failed, in batches, and never be left waiting
+class OrderGroupCommitterTests {
+
+	private final AtomicLong ids = new AtomicLong();
+	private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	void concurrentOrdersShareBatches() throws Exception {
+		OrderGroupCommitter committer = new OrderGroupCommitter(this::save, batchSizes::add, 10, 50, 1000);
+		List<CompletableFuture<Order>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++) {
+			futures.add(committer.submit(order("product-" + i)));
+		}
+		for (int i = 0; i < 100; i++) {
+			Order saved = futures.get(i).get(5, TimeUnit.SECONDS);
+			assertNotNull(saved.getId());
+			assertEquals("product-" + i, saved.getProductName(), "each caller gets its own order back");
+		}
+		committer.shutdown(1000);
+
+		assertEquals(100, batchSizes.stream().mapToInt(Integer::intValue).sum());
+		assertTrue(batchSizes.size() < 100, "orders were grouped, batches: " + batchSizes);
+		assertTrue(batchSizes.stream().allMatch(size -> size <= 10), "max-size respected: " + batchSizes);
+	}
+
+	@Test
+	void failedBatchIsRetriedOneByOneSoOnlyTheBadOrderFails() throws Exception {
+		// WHY: the writer rejects the whole batch when one order is bad, as one transaction would
+		Function<List<Order>, List<Order>> writer = orders -> {
+			if (orders.stream().anyMatch(order -> order.getProductName().equals("bad"))) {
+				throw new IllegalArgumentException("constraint violated");
+			}
+			return save(orders);
+		};
+		CountDownLatch writerBusy = new CountDownLatch(1);
+		OrderGroupCommitter committer = new OrderGroupCommitter(orders -> {
+			awaitQuietly(writerBusy);
+			return writer.apply(orders);
+		}, batchSizes::add, 10, 50, 1000);
+
+		CompletableFuture<Order> good1 = committer.submit(order("good-1"));
+		CompletableFuture<Order> bad = committer.submit(order("bad"));
+		CompletableFuture<Order> good2 = committer.submit(order("good-2"));
+		writerBusy.countDown();
+
+		assertNotNull(good1.get(5, TimeUnit.SECONDS).getId());
+		assertNotNull(good2.get(5, TimeUnit.SECONDS).getId());
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+		committer.shutdown(1000);
+	}
+
+	@Test
+	void shutdownCommitsQueuedOrdersAndRefusesNewOnes() throws Exception {
+		OrderGroupCommitter committer = new OrderGroupCommitter(this::save, batchSizes::add, 10, 200, 1000);
+		CompletableFuture<Order> queued = committer.submit(order("queued"));
+
+		committer.shutdown(1000);
+
+		assertTrue(queued.isDone());
+		assertNotNull(queued.get().getId());
+		assertNull(committer.submit(order("late")), "after shutdown the caller writes the order itself");
+	}
+
+	@Test
+	void writerDyingFailsQueuedOrdersInsteadOfLeavingThemWaiting() throws Exception {
+		OrderGroupCommitter committer = new OrderGroupCommitter(orders -> {
+			throw new OutOfMemoryError("simulated");
+		}, batchSizes::add, 10, 50, 1000);
+
+		CompletableFuture<Order> pending = committer.submit(order("doomed"));
+
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, failure.getCause());
+		assertNull(committer.submit(order("next")), "a dead writer refuses new orders");
+		committer.shutdown(1000);
+	}
+
+	private List<Order> save(List<Order> orders) {
+		for (Order order : orders) {
+			order.setId(ids.incrementAndGet());
+		}
+		return orders;
+	}
+
+	private static Order order(String productName) {
+		return new Order(42L, productName, 9.99, 9.99, "PENDING");
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
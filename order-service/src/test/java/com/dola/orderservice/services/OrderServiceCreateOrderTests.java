@@ -0,0 +1,43 @@
+package com.dola.orderservice.services;
+
+import com.dola.orderservice.entities.Order;
+import com.dola.orderservice.repositories.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// OrderService.createOrder tests
+// ===========================================================================================
+// WHY: POST /orders binds the whole Order from JSON - an "id" in the body must create a new
+// order, never overwrite an existing one inside a group commit shared with other callers
+@SpringBootTest(properties = {
+	"spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+	"order.group-commit.enabled=true"
+})
+class OrderServiceCreateOrderTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	void clientSuppliedIdAndVersionAreIgnored() {
+		Order existing = orderService.createOrder(new Order(1L, "Laptop", 999.99, 999.99, "PENDING"));
+
+		Order posted = new Order(2L, "Phone", 499.99, 499.99, "PENDING");
+		posted.setId(existing.getId());
+		posted.setVersion(3);
+		Order created = orderService.createOrder(posted);
+
+		assertNotEquals(existing.getId(), created.getId());
+		assertEquals(0, created.getVersion());
+		Order unchanged = orderRepository.findById(existing.getId()).orElseThrow();
+		assertEquals("Laptop", unchanged.getProductName());
+		assertEquals(1L, unchanged.getUserId());
+	}
+}
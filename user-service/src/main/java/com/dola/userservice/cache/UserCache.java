@@ -0,0 +1,61 @@
+package com.dola.userservice.cache;
+
+import com.dola.userservice.entities.User;
+import com.dola.userservice.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of users by id for GET /users/{id}
+ *
+ * - Size-bounded (W-TinyLFU) with a TTL, so hot users are served from memory and a
+ *   write made outside this instance is picked up after at most user.cache.ttl
+ * - Concurrent misses for the same id share one database load
+ * - Missing users are not cached, so a user created right after a 404 is found at once
+ * - UserController invalidates a user when it is saved
+ * Hit rate etc. are exported as cache.* metrics with cache=users.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> cache;
+    private final boolean enabled;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${user.cache.enabled:true}") boolean enabled,
+                     @Value("${user.cache.max-size:10000}") long maxSize,
+                     @Value("${user.cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findById(Long id) {
+        if (!enabled) {
+            return userRepository.findById(id);
+        }
+        return Optional.ofNullable(cache.get(id, key -> userRepository.findById(key).orElse(null)));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+}
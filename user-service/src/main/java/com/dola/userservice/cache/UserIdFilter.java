@@ -0,0 +1,199 @@
+package com.dola.userservice.cache;
+
+import com.dola.userservice.repositories.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of every user id, for existence checks that skip Postgres
+ *
+ * - Built at startup from a streamed id scan, sized for max(user.bloom.expected-users,
+ *   2 x current users) at user.bloom.false-positive-rate
+ * - createUser adds new ids right away; UserIdFilterFeed adds ids created through other
+ *   instances from the user-events topic
+ * - Rebuilt every user.bloom.rebuild-interval-ms, which resizes it as the table grows
+ * A negative answer is definite only for ids up to the highest id the last rebuild scanned,
+ * and only while UserIdFilterFeed is following user-events (or with user.bloom.single-instance,
+ * where every user is created through this instance). Otherwise a user created through
+ * another instance could be missing, so misses, like every positive, go to the database.
+ * Footprint and expected false-positive rate are exported as user.bloom.* metrics.
+ */
+@Component
+public class UserIdFilter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final boolean singleInstance;
+
+    private volatile LongBloomFilter current;
+    // Highest id seen by the scan that built current; written after current
+    private volatile long scannedMaxId;
+    private volatile long scanStartedAt;
+    // Set while a rebuild scans the table, so ids added meanwhile land in both filters.
+    // add() and the swap to the new filter hold the monitor, so no id falls between them.
+    private LongBloomFilter building;
+    private final AtomicLong userIds = new AtomicLong();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder unconfirmed = new LongAdder();
+    private volatile BooleanSupplier feedHealthy = () -> false;
+
+    public UserIdFilter(UserRepository userRepository,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${user.bloom.enabled:true}") boolean enabled,
+                        @Value("${user.bloom.expected-users:1000000}") long expectedUsers,
+                        @Value("${user.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                        @Value("${user.bloom.single-instance:false}") boolean singleInstance) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.singleInstance = singleInstance;
+    }
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * False only if the user definitely does not exist
+     * Before the first build, above the highest scanned id and while ids created through
+     * other instances may be missing, every id is a "maybe".
+     */
+    public boolean mightExist(long userId) {
+        LongBloomFilter filter = current;
+        if (filter == null) {
+            return true;
+        }
+        if (filter.mightContain(userId)) {
+            positives.increment();
+            return true;
+        }
+        if (userId > scannedMaxId || !(singleInstance || feedHealthy.getAsBoolean())) {
+            unconfirmed.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Registers the check that ids created through other instances are reaching add()
+     * Negatives are trusted only while it returns true.
+     */
+    public void setFeedHealthy(BooleanSupplier feedHealthy) {
+        this.feedHealthy = feedHealthy;
+    }
+
+    /**
+     * When the scan that built the current filter started (epoch millis), or 0 before the first build
+     */
+    public long getScanStartedAt() {
+        return scanStartedAt;
+    }
+
+    public synchronized void add(long userId) {
+        LongBloomFilter filter = current;
+        if (filter == null) {
+            return;
+        }
+        filter.add(userId);
+        userIds.incrementAndGet();
+        LongBloomFilter next = building;
+        if (next != null) {
+            next.add(userId);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${user.bloom.rebuild-interval-ms:600000}",
+            fixedDelayString = "${user.bloom.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long users = userRepository.count();
+        LongBloomFilter next = new LongBloomFilter(Math.max(expectedUsers, users * 2), falsePositiveRate);
+        synchronized (this) {
+            building = next;
+        }
+        long[] maxId = {0};
+        long scanned;
+        try {
+            scanned = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<Long> ids = userRepository.streamAllIds()) {
+                    for (var iterator = ids.iterator(); iterator.hasNext(); count++) {
+                        long id = iterator.next();
+                        next.add(id);
+                        maxId[0] = Math.max(maxId[0], id);
+                    }
+                }
+                return count;
+            });
+            synchronized (this) {
+                current = next;
+                scannedMaxId = maxId[0];
+                scanStartedAt = started;
+                userIds.set(scanned);
+            }
+        } finally {
+            synchronized (this) {
+                building = null;
+            }
+        }
+        log.info("User id Bloom filter built: {} ids, {} KB ({} bits, {} hashes, expected false-positive rate {}) in {} ms",
+                scanned, next.memoryBytes() / 1024, next.getBitCount(), next.getHashCount(),
+                String.format("%.4f", next.expectedFalsePositiveRate(scanned)), System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("user.bloom.memory", this, f -> f.current == null ? 0 : f.current.memoryBytes())
+                .description("Bytes held by the user id Bloom filter")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("user.bloom.ids", userIds, AtomicLong::get)
+                .description("User ids added to the Bloom filter")
+                .register(registry);
+        Gauge.builder("user.bloom.false.positive.rate", this,
+                        f -> f.current == null ? 1 : f.current.expectedFalsePositiveRate(f.userIds.get()))
+                .description("Expected false-positive rate at the current number of ids")
+                .register(registry);
+        FunctionCounter.builder("user.bloom.lookups", negatives, LongAdder::sum)
+                .description("Existence checks answered by the Bloom filter")
+                .tag("result", "negative")
+                .register(registry);
+        FunctionCounter.builder("user.bloom.lookups", positives, LongAdder::sum)
+                .description("Existence checks answered by the Bloom filter")
+                .tag("result", "maybe")
+                .register(registry);
+        FunctionCounter.builder("user.bloom.lookups", unconfirmed, LongAdder::sum)
+                .description("Existence checks answered by the Bloom filter")
+                .tag("result", "unconfirmed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.dola.userservice.config;
+
+import com.dola.events.UserEvent;
+import com.dola.events.UserEventSerializer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer for the user-events topic (user.events.enabled=true, the default)
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.events.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${user.events.topic:user-events}")
+    private String topic;
+
+    @Value("${user.events.partitions:3}")
+    private int partitions;
+
+    @Value("${user.events.max-block-ms:1000}")
+    private long maxBlockMs;
+
+    @Bean
+    public KafkaTemplate<String, UserEvent> userEventTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // order-service treats the topic as the source of truth for known user ids
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        // An unreachable broker must not hold createUser for the default 60s
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props,
+                new StringSerializer(), new UserEventSerializer()));
+    }
+
+    /**
+     * Log-compacted: only the latest event per user id is kept, so the topic stays about
+     * as large as the users table and a full replay is cheap
+     */
+    @Bean
+    public NewTopic userEventsTopic() {
+        return TopicBuilder.name(topic).partitions(partitions).replicas(1).compact().build();
+    }
+}
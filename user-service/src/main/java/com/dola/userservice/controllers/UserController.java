@@ -1,9 +1,39 @@
 package com.dola.userservice.controllers;
 
+import com.dola.paging.CursorPage;
+import com.dola.userservice.cache.UserCache;
+import com.dola.userservice.cache.UserIdFilter;
+import com.dola.userservice.dto.ImportSummary;
 import com.dola.userservice.entities.User;
+import com.dola.userservice.events.UserEventPublisher;
 import com.dola.userservice.repositories.UserRepository;
+import com.dola.userservice.services.UserImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/users")
@@ -12,19 +42,183 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserIdFilter userIdFilter;
+
+    @Autowired(required = false)
+    private UserEventPublisher userEventPublisher;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${user.list.default-limit:100}")
+    private int defaultListLimit;
+
+    @Value("${user.list.max-limit:1000}")
+    private int maxListLimit;
+
+    @Value("${user.exists.max-ids:1000}")
+    private int maxExistsIds;
+
     @PostMapping
     public User createUser(@RequestBody User user) {
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (UserImportService.isDuplicateEmail(e)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered");
+            }
+            throw e;
+        }
+        // save() also updates when an id is given, so drop any cached copy
+        userCache.invalidate(saved.getId());
+        userIdFilter.add(saved.getId());
+        if (userEventPublisher != null) {
+            userEventPublisher.userCreated(saved.getId());
+        }
+        return saved;
     }
 
+    /**
+     * Served from UserCache (only misses go to the database) with the user's version as a strong ETag
+     * Ids the UserIdFilter rules out are answered 404 without a lookup; a matching
+     * If-None-Match is answered 304 from a version-only query.
+     */
     @GetMapping("/{id}")
-    public User getUser(@PathVariable Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<User> getUser(@PathVariable Long id, WebRequest request) {
+        if (!userIdFilter.mightExist(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        Long version = null;
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            version = userRepository.findVersionById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+            if (request.checkNotModified(eTag(version))) {
+                return null;
+            }
+        }
+        User user = userCache.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        if (version != null && user.getVersion() != version) {
+            // Cached copy is older than the database (written through another instance)
+            userCache.invalidate(id);
+            user = userCache.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        }
+        return ResponseEntity.ok().eTag(eTag(user.getVersion())).body(user);
+    }
+
+    /**
+     * Existence check: 200 or 404, no body
+     * Definite negatives come from UserIdFilter; only possible matches run an id-only query.
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> userExists(@PathVariable Long id) {
+        boolean exists = userIdFilter.mightExist(id) && userRepository.existsById(id);
+        return exists ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
+    /**
+     * One page of users in id order
+     * limit defaults to user.list.default-limit and is capped at user.list.max-limit;
+     * pass the returned nextCursor as ?cursor= to get the next page
+     */
     @GetMapping
-    public Iterable<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<User> getAllUsers(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? defaultListLimit : Math.max(1, Math.min(limit, maxListLimit));
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(afterId(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, User::getId);
+    }
+
+    /**
+     * All users (after ?cursor= if given) as newline-delimited JSON
+     * Rows are read with a JDBC fetch size and written as they arrive, so memory stays
+     * flat however large the table is. Selected with ?format=ndjson.
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(required = false) String cursor) {
+        long afterId = afterId(cursor);
+        StreamingResponseBody body = out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<User> users = userRepository.streamByIdGreaterThan(afterId)) {
+                Iterator<User> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    User user = iterator.next();
+                    out.write(jsonMapper.writeValueAsBytes(user));
+                    out.write('\n');
+                    // Nothing is kept in the persistence context, so it does not grow with the table
+                    entityManager.detach(user);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Bulk import from newline-delimited JSON ({"name":..,"email":..} per line)
+     * The body is parsed while it streams in and stored in batches; users whose email
+     * already exists are skipped. Returns counts plus the first rejected lines.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportSummary importNdjson(InputStream body) throws IOException {
+        return userImportService.importNdjson(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Bulk import from CSV (name,email - an optional header row may reorder the columns)
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportSummary importCsv(InputStream body) throws IOException {
+        return userImportService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Batch existence check
+     * Takes a list of user ids and returns the ones that exist, using a single query
+     * for the ids UserIdFilter does not rule out. Lists longer than user.exists.max-ids get 400.
+     */
+    @PostMapping("/exists")
+    public List<Long> usersExist(@RequestBody List<Long> ids) {
+        if (ids.size() > maxExistsIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxExistsIds + " ids may be checked per request");
+        }
+        List<Long> candidates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (id != null && userIdFilter.mightExist(id)) {
+                candidates.add(id);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findExistingIds(candidates);
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long afterId(String cursor) {
+        try {
+            return CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
-}
\ No newline at end of file
+}
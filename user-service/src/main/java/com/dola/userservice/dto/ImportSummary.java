@@ -0,0 +1,53 @@
+package com.dola.userservice.dto;
+
+import java.util.List;
+
+/**
+ * Response body for POST /users/import
+ * errors lists the first rejected lines (at most user.import.max-reported-errors)
+ */
+public class ImportSummary {
+
+    private long lines;
+    private long imported;
+    private long duplicates;
+    private long invalid;
+    private long durationMs;
+    private List<String> errors;
+
+    public ImportSummary() {
+    }
+
+    public ImportSummary(long lines, long imported, long duplicates, long invalid, long durationMs, List<String> errors) {
+        this.lines = lines;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+        this.durationMs = durationMs;
+        this.errors = errors;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -3,15 +3,31 @@ package com.dola.userservice.entities;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // POST /users/import skips existing emails; the index also rejects concurrent duplicates
+        @Index(name = User.UNIQUE_EMAIL, columnList = "email", unique = true)
+})
 public class User {
+    public static final String UNIQUE_EMAIL = "uk_users_email";
+    // Column length of name and email (the JPA default, varchar(255))
+    public static final int MAX_LENGTH = 255;
+
+    // Pooled sequence: Hibernate reserves 50 ids per round trip, so batched
+    // inserts (POST /users/import) don't pay a nextval() per row
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String email;
 
+    // Bumped by Hibernate on every update; GET /users/{id} sends it as the ETag.
+    // The column default fills rows written before it existed.
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+
     // Constructors
     public User() {
     }
@@ -45,4 +61,12 @@ public class User {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.dola.userservice.events;
+
+import com.dola.events.UserEvent;
+import com.dola.events.UserEventDeserializer;
+import com.dola.userservice.repositories.UserRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles the user-events topic with the users table
+ *
+ * Shortly after startup and every user.events.backfill.interval-ms, the topic is read up to
+ * its current end and compared with a sorted scan of user ids:
+ * - users without any event (created before user-events existed, or whose event was lost)
+ *   get a CREATED
+ * - users with a CREATED but no DELETED that are no longer in the table get a DELETED
+ * Ids are held in sorted long arrays (8 bytes per user). Several instances may publish the
+ * same event; that is harmless on a compacted topic keyed by user id.
+ */
+@Component
+@ConditionalOnProperty(name = "user.events.enabled", havingValue = "true", matchIfMissing = true)
+public class UserEventBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventBackfill.class);
+
+    private final UserRepository userRepository;
+    private final UserEventPublisher userEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+    private final Duration pollTimeout;
+    private final long timeoutMs;
+    private final DefaultKafkaConsumerFactory<String, UserEvent> consumerFactory;
+
+    public UserEventBackfill(UserRepository userRepository,
+                             UserEventPublisher userEventPublisher,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                             @Value("${user.events.topic:user-events}") String topic,
+                             @Value("${user.events.backfill.poll-timeout-ms:500}") long pollTimeoutMs,
+                             @Value("${user.events.backfill.timeout-ms:300000}") long timeoutMs) {
+        this.userRepository = userRepository;
+        this.userEventPublisher = userEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.topic = topic;
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMs);
+        this.timeoutMs = timeoutMs;
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // No group: partitions are assigned by hand and nothing is committed
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        this.consumerFactory = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new UserEventDeserializer()));
+    }
+
+    @Scheduled(initialDelayString = "${user.events.backfill.initial-delay-ms:10000}",
+            fixedDelayString = "${user.events.backfill.interval-ms:3600000}")
+    public void backfill() {
+        long started = System.currentTimeMillis();
+        long[][] published;
+        try {
+            published = readTopic();
+        } catch (RuntimeException e) {
+            log.warn("User event backfill skipped, {} could not be read - {}", topic, e.toString());
+            return;
+        }
+        long[] created = published[0];
+        long[] deleted = published[1];
+
+        long[] counts = transactionTemplate.execute(status -> {
+            try (Stream<Long> ids = userRepository.streamAllIdsInOrder()) {
+                return reconcile(ids.iterator(), created, deleted);
+            }
+        });
+        log.info("User event backfill: {} events on {}, republished {} CREATED and {} DELETED in {} ms",
+                created.length + deleted.length, topic, counts[0], counts[1], System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Publishes what the topic is missing, given the table's ids in ascending order and the
+     * sorted, distinct CREATED and DELETED ids on the topic; returns {CREATED, DELETED} counts
+     */
+    long[] reconcile(Iterator<Long> ids, long[] created, long[] deleted) {
+        long missingCreated = 0;
+        long missingDeleted = 0;
+        int next = 0;
+        while (ids.hasNext()) {
+            long id = ids.next();
+            // CREATED ids below this one are no longer in the table
+            for (; next < created.length && created[next] < id; next++) {
+                missingDeleted += deleteIfNotPublished(created[next], deleted);
+            }
+            if (next < created.length && created[next] == id) {
+                next++;
+            } else if (Arrays.binarySearch(deleted, id) < 0) {
+                userEventPublisher.republish(UserEvent.created(id));
+                missingCreated++;
+            }
+        }
+        for (; next < created.length; next++) {
+            missingDeleted += deleteIfNotPublished(created[next], deleted);
+        }
+        return new long[] {missingCreated, missingDeleted};
+    }
+
+    private int deleteIfNotPublished(long id, long[] deleted) {
+        if (Arrays.binarySearch(deleted, id) >= 0) {
+            return 0;
+        }
+        userEventPublisher.republish(UserEvent.deleted(id));
+        return 1;
+    }
+
+    // Distinct CREATED and DELETED user ids on the topic up to its current end, each sorted
+    private long[][] readTopic() {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        LongList created = new LongList();
+        LongList deleted = new LongList();
+        try (Consumer<String, UserEvent> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+            if (partitions == null || partitions.isEmpty()) {
+                throw new IllegalStateException("Topic " + topic + " has no partitions yet");
+            }
+            List<TopicPartition> assignment = new ArrayList<>();
+            for (PartitionInfo partition : partitions) {
+                assignment.add(new TopicPartition(topic, partition.partition()));
+            }
+            consumer.assign(assignment);
+            consumer.seekToBeginning(assignment);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(assignment);
+            while (!reached(consumer, endOffsets)) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Not read to the end within " + timeoutMs + " ms");
+                }
+                for (ConsumerRecord<String, UserEvent> record : consumer.poll(pollTimeout)) {
+                    UserEvent event = record.value();
+                    if (event == null || event.getUserId() == null) {
+                        continue;
+                    }
+                    (event.getType() == UserEvent.Type.DELETED ? deleted : created).add(event.getUserId());
+                }
+            }
+        }
+        return new long[][] {created.sortedDistinct(), deleted.sortedDistinct()};
+    }
+
+    private static boolean reached(Consumer<String, UserEvent> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] sortedDistinct() {
+            Arrays.sort(values, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || values[i] != values[distinct - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+            return Arrays.copyOf(values, distinct);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.dola.userservice.events;
+
+import com.dola.events.UserEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes UserCreated/UserDeleted events to the compacted user-events topic
+ * Records are keyed by user id, so compaction keeps the latest event per user.
+ * Sends are asynchronous, so user writes never wait on or fail because of Kafka. A failed
+ * send is retried in the background with exponential backoff, up to
+ * user.events.publish.max-attempts; an event that still fails (or is lost in a crash) is
+ * republished by UserEventBackfill.
+ */
+@Component
+@ConditionalOnProperty(name = "user.events.enabled", havingValue = "true", matchIfMissing = true)
+public class UserEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventPublisher.class);
+
+    private final KafkaTemplate<String, UserEvent> userEventTemplate;
+    private final String topic;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+    // Latest event per user not yet acknowledged by Kafka; a retry is dropped once a newer
+    // event for the same user has been published, or a CREATED could follow its DELETED
+    private final Map<Long, UserEvent> unacknowledged = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-event-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UserEventPublisher(KafkaTemplate<String, UserEvent> userEventTemplate,
+                              @Value("${user.events.topic:user-events}") String topic,
+                              @Value("${user.events.publish.initial-backoff-ms:1000}") long initialBackoffMs,
+                              @Value("${user.events.publish.max-backoff-ms:60000}") long maxBackoffMs,
+                              @Value("${user.events.publish.max-attempts:10}") int maxAttempts) {
+        this.userEventTemplate = userEventTemplate;
+        this.topic = topic;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retries.shutdownNow();
+    }
+
+    public void userCreated(Long userId) {
+        publish(UserEvent.created(userId));
+    }
+
+    public void userDeleted(Long userId) {
+        publish(UserEvent.deleted(userId));
+    }
+
+    /**
+     * Publishes an event for a user that is missing from the topic (UserEventBackfill)
+     */
+    public void republish(UserEvent event) {
+        publish(event);
+    }
+
+    private void publish(UserEvent event) {
+        publish(event, 1);
+    }
+
+    private void publish(UserEvent event, int attempt) {
+        if (attempt == 1) {
+            unacknowledged.put(event.getUserId(), event);
+        }
+        try {
+            userEventTemplate.send(topic, String.valueOf(event.getUserId()), event)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            failed(event, attempt, ex);
+                        } else {
+                            unacknowledged.remove(event.getUserId(), event);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // Metadata unavailable within max.block.ms
+            failed(event, attempt, e);
+        }
+    }
+
+    private void failed(UserEvent event, int attempt, Throwable e) {
+        if (attempt >= maxAttempts) {
+            unacknowledged.remove(event.getUserId(), event);
+            log.error("Failed to publish {} after {} attempts, left to the next backfill - {}",
+                    event, attempt, e.getMessage());
+            return;
+        }
+        long delay = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        log.warn("Failed to publish {} (attempt {}), retrying in {} ms - {}", event, attempt, delay, e.getMessage());
+        try {
+            retries.schedule(() -> {
+                if (unacknowledged.get(event.getUserId()) == event) {
+                    publish(event, attempt + 1);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException shuttingDown) {
+            unacknowledged.remove(event.getUserId(), event);
+            log.warn("Not retrying {} during shutdown, left to the next backfill", event);
+        }
+    }
+}
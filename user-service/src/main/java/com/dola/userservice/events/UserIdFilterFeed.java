@@ -0,0 +1,198 @@
+package com.dola.userservice.events;
+
+import com.dola.events.UserEvent;
+import com.dola.events.UserEventDeserializer;
+import com.dola.userservice.cache.UserIdFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds users created through other instances to the local UserIdFilter
+ * Reads the user-events topic from the start of the filter's initial scan onwards (record
+ * timestamps), so no user committed after that scan is missed. Partitions are assigned by
+ * hand and nothing is committed: every instance reads every event. A failing consumer is
+ * recreated after user.bloom.feed.retry-backoff-ms and resumes where it stopped.
+ * UserIdFilter trusts its negatives only while the feed is healthy: caught up once, and
+ * polled successfully within the last user.bloom.feed.max-staleness-ms.
+ */
+@Component
+@ConditionalOnProperty(name = {"user.events.enabled", "user.bloom.enabled"}, havingValue = "true", matchIfMissing = true)
+public class UserIdFilterFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdFilterFeed.class);
+
+    private final UserIdFilter userIdFilter;
+    private final String bootstrapServers;
+    private final String topic;
+    private final Duration pollTimeout;
+    private final long retryBackoffMs;
+    private final long maxStalenessMs;
+
+    // Next offset to read per partition, so a recreated consumer resumes instead of re-seeking
+    private final Map<TopicPartition, Long> positions = new HashMap<>();
+    private volatile boolean running = true;
+    private volatile boolean caughtUp;
+    private volatile long lastPolledAt;
+    private volatile Consumer<String, UserEvent> consumer;
+    private DefaultKafkaConsumerFactory<String, UserEvent> consumerFactory;
+    private Thread thread;
+
+    public UserIdFilterFeed(UserIdFilter userIdFilter,
+                            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                            @Value("${user.events.topic:user-events}") String topic,
+                            @Value("${user.bloom.feed.poll-timeout-ms:500}") long pollTimeoutMs,
+                            @Value("${user.bloom.feed.retry-backoff-ms:5000}") long retryBackoffMs,
+                            @Value("${user.bloom.feed.max-staleness-ms:5000}") long maxStalenessMs) {
+        this.userIdFilter = userIdFilter;
+        this.bootstrapServers = bootstrapServers;
+        this.topic = topic;
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMs);
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    @PostConstruct
+    void start() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // No group: partitions are assigned by hand and nothing is committed
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        consumerFactory = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new UserEventDeserializer()));
+
+        userIdFilter.setFeedHealthy(this::isHealthy);
+        thread = new Thread(this::run, "user-id-filter-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        Consumer<String, UserEvent> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        // Ends a backoff sleep
+        thread.interrupt();
+        thread.join(5000);
+    }
+
+    /**
+     * True while every user created through another instance reaches the filter within
+     * about max-staleness-ms of its event
+     */
+    public boolean isHealthy() {
+        return caughtUp && System.currentTimeMillis() - lastPolledAt <= maxStalenessMs;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                consumer = consumerFactory.createConsumer();
+                follow();
+            } catch (WakeupException e) {
+                // shutdown()
+            } catch (RuntimeException e) {
+                caughtUp = false;
+                if (running) {
+                    log.warn("User id filter feed failed, reconnecting in {} ms - {}", retryBackoffMs, e.toString());
+                    sleep();
+                }
+            } finally {
+                if (consumer != null) {
+                    consumer.close();
+                    consumer = null;
+                }
+            }
+        }
+    }
+
+    private void follow() {
+        List<TopicPartition> assignment = assign();
+        while (running) {
+            ConsumerRecords<String, UserEvent> records = consumer.poll(pollTimeout);
+            for (ConsumerRecord<String, UserEvent> record : records) {
+                UserEvent event = record.value();
+                // Undecodable records (ErrorHandlingDeserializer) are skipped; deletes are left
+                // to the next rebuild, a Bloom filter cannot forget an id
+                if (event != null && event.getType() == UserEvent.Type.CREATED) {
+                    userIdFilter.add(event.getUserId());
+                }
+            }
+            for (TopicPartition partition : assignment) {
+                positions.put(partition, consumer.position(partition));
+            }
+            if (records.isEmpty()) {
+                caughtUp = true;
+            }
+            lastPolledAt = System.currentTimeMillis();
+        }
+    }
+
+    private List<TopicPartition> assign() {
+        List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+        if (partitions == null || partitions.isEmpty()) {
+            throw new IllegalStateException("Topic " + topic + " has no partitions yet");
+        }
+        List<TopicPartition> assignment = new ArrayList<>();
+        for (PartitionInfo partition : partitions) {
+            assignment.add(new TopicPartition(topic, partition.partition()));
+        }
+        consumer.assign(assignment);
+
+        Map<TopicPartition, Long> fromScan = new HashMap<>();
+        for (TopicPartition partition : assignment) {
+            if (!positions.containsKey(partition)) {
+                fromScan.put(partition, userIdFilter.getScanStartedAt());
+            }
+        }
+        Map<TopicPartition, OffsetAndTimestamp> scanOffsets =
+                fromScan.isEmpty() ? Map.of() : consumer.offsetsForTimes(fromScan);
+        for (TopicPartition partition : assignment) {
+            Long position = positions.get(partition);
+            OffsetAndTimestamp fromTime = scanOffsets.get(partition);
+            if (position != null) {
+                consumer.seek(partition, position);
+            } else if (fromTime != null) {
+                consumer.seek(partition, fromTime.offset());
+            } else {
+                // Nothing published since the scan started
+                consumer.seekToEnd(List.of(partition));
+            }
+        }
+        return assignment;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(retryBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
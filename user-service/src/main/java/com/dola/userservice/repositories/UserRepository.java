@@ -1,7 +1,65 @@
 package com.dola.userservice.repositories;
 
 import com.dola.userservice.entities.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Returns the subset of the given ids that exist, in one primary-key lookup
+     * Only ids are selected - no User entities are loaded
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the subset of the given emails that are already taken (uk_users_email lookups)
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Current version of a user (its ETag), without loading the entity
+     */
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * One keyset page: WHERE id > :afterId ORDER BY id LIMIT n, a primary-key range scan
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * All users after an id, streamed with a JDBC fetch size
+     * Must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select u from User u where u.id > :afterId order by u.id")
+    Stream<User> streamByIdGreaterThan(@Param("afterId") long afterId);
+
+    /**
+     * Every user id, streamed with a JDBC fetch size (UserIdFilter rebuilds)
+     * Must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("select u.id from User u")
+    Stream<Long> streamAllIds();
+
+    /**
+     * Every user id in ascending order, streamed with a JDBC fetch size (UserEventBackfill)
+     * Must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("select u.id from User u order by u.id")
+    Stream<Long> streamAllIdsInOrder();
+}
@@ -0,0 +1,45 @@
+package com.dola.userservice.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits one CSV line (RFC 4180 quoting: "a, b" and "" for a literal quote)
+ * Fields cannot span lines, so an import can be read one line at a time.
+ */
+public final class CsvLine {
+
+    private CsvLine() {
+    }
+
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
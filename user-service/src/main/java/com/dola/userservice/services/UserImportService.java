@@ -0,0 +1,278 @@
+package com.dola.userservice.services;
+
+import com.dola.userservice.cache.UserIdFilter;
+import com.dola.userservice.dto.ImportSummary;
+import com.dola.userservice.entities.User;
+import com.dola.userservice.events.UserEventPublisher;
+import com.dola.userservice.repositories.UserRepository;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk user import for POST /users/import
+ *
+ * The body is read one line at a time and users are written in batches of
+ * user.import.batch-size, each in its own transaction with a matching JDBC batch size,
+ * so memory stays flat however large the file is: each batch is flushed and cleared from
+ * the persistence context, which open-in-view would otherwise keep for the whole request.
+ * Ids come from the pooled users_seq sequence (one round trip per 50 ids). Emails that
+ * already exist - in the table or earlier in the same batch - are skipped and counted as
+ * duplicates; the unique index on email catches rows inserted concurrently by someone
+ * else. Rows with a name or email longer than the columns are rejected as invalid.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+    private final UserIdFilter userIdFilter;
+    private final UserEventPublisher userEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(UserRepository userRepository,
+                             UserIdFilter userIdFilter,
+                             ObjectProvider<UserEventPublisher> userEventPublisher,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             JsonMapper jsonMapper,
+                             @Value("${user.import.batch-size:1000}") int batchSize,
+                             @Value("${user.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.userIdFilter = userIdFilter;
+        this.userEventPublisher = userEventPublisher.getIfAvailable();
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * One JSON object per line: {"name": "...", "email": "..."}; other fields are ignored
+     */
+    public ImportSummary importNdjson(Reader body) throws IOException {
+        Run run = new Run();
+        BufferedReader lines = new BufferedReader(body, 64 * 1024);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            run.lines++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                UserRow row = jsonMapper.readValue(line, UserRow.class);
+                if (row == null) {
+                    run.reject("not a JSON object");
+                    continue;
+                }
+                run.add(row.name(), row.email());
+            } catch (JacksonException e) {
+                run.reject("malformed JSON");
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * CSV with name and email columns
+     * A header row (containing "email") may name the columns in any order;
+     * without one the columns are name,email.
+     */
+    public ImportSummary importCsv(Reader body) throws IOException {
+        Run run = new Run();
+        BufferedReader lines = new BufferedReader(body, 64 * 1024);
+        int nameColumn = 0;
+        int emailColumn = 1;
+        boolean first = true;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            run.lines++;
+            if (first && line.startsWith("\uFEFF")) {
+                // Byte order mark written by spreadsheet exports
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = CsvLine.parse(line);
+            } catch (IllegalArgumentException e) {
+                run.reject(e.getMessage());
+                first = false;
+                continue;
+            }
+            if (first) {
+                first = false;
+                List<String> header = fields.stream().map(f -> f.trim().toLowerCase(Locale.ROOT)).toList();
+                if (header.contains("email")) {
+                    nameColumn = header.indexOf("name");
+                    emailColumn = header.indexOf("email");
+                    continue;
+                }
+            }
+            String name = nameColumn >= 0 && nameColumn < fields.size() ? fields.get(nameColumn) : null;
+            String email = emailColumn < fields.size() ? fields.get(emailColumn) : null;
+            run.add(name, email);
+        }
+        return run.finish();
+    }
+
+    // Writes one batch; returns how many of its users were already stored
+    private int store(Map<String, User> batch, List<User> saved) {
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(batch.keySet()));
+        List<User> fresh = new ArrayList<>(batch.size() - existing.size());
+        for (User user : batch.values()) {
+            if (!existing.contains(user.getEmail())) {
+                fresh.add(user);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return existing.size();
+        }
+        try {
+            saved.addAll(persist(fresh));
+            return existing.size();
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            // Another writer inserted one of these emails since the check; store one by one
+            log.warn("Batch insert of {} users failed, storing one by one - {}", fresh.size(), e.getMessage());
+            int duplicates = existing.size();
+            for (User user : fresh) {
+                user.setId(null);
+                user.setVersion(0);
+                try {
+                    saved.addAll(persist(List.of(user)));
+                } catch (DataIntegrityViolationException duplicate) {
+                    if (!isDuplicateEmail(duplicate)) {
+                        throw duplicate;
+                    }
+                    duplicates++;
+                }
+            }
+            return duplicates;
+        }
+    }
+
+    // Inserts in one transaction and JDBC batch, then detaches the users again
+    private List<User> persist(List<User> users) {
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            List<User> saved = userRepository.saveAll(users);
+            entityManager.flush();
+            entityManager.clear();
+            return saved;
+        });
+    }
+
+    /**
+     * True if e is the unique index on email rejecting a user; any other violation is a failure
+     */
+    public static boolean isDuplicateEmail(Throwable e) {
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                // Databases report the name in their own case, H2 with a schema prefix and suffix
+                String name = violation.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(User.UNIQUE_EMAIL);
+            }
+        }
+        return false;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record UserRow(String name, String email) {
+    }
+
+    private final class Run {
+        private final long started = System.currentTimeMillis();
+        private final Map<String, User> batch = new LinkedHashMap<>();
+        private final List<String> errors = new ArrayList<>();
+        private long lines;
+        private long imported;
+        private long duplicates;
+        private long invalid;
+
+        void add(String name, String email) {
+            email = email == null ? "" : email.trim();
+            if (email.isEmpty() || email.indexOf('@') < 1) {
+                reject("missing or invalid email");
+                return;
+            }
+            name = name == null ? null : name.trim();
+            if (email.length() > User.MAX_LENGTH || (name != null && name.length() > User.MAX_LENGTH)) {
+                reject("name or email longer than " + User.MAX_LENGTH + " characters");
+                return;
+            }
+            if (batch.putIfAbsent(email, new User(name, email)) != null) {
+                duplicates++;
+                return;
+            }
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String reason) {
+            invalid++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add("line " + lines + ": " + reason);
+            }
+        }
+
+        ImportSummary finish() {
+            flush();
+            long durationMs = System.currentTimeMillis() - started;
+            log.info("Imported {} users ({} duplicates, {} invalid) from {} lines in {} ms",
+                    imported, duplicates, invalid, lines, durationMs);
+            return new ImportSummary(lines, imported, duplicates, invalid, durationMs, errors);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<User> saved = new ArrayList<>(batch.size());
+            duplicates += store(batch, saved);
+            imported += saved.size();
+            for (User user : saved) {
+                userIdFilter.add(user.getId());
+                if (userEventPublisher != null) {
+                    userEventPublisher.userCreated(user.getId());
+                }
+            }
+            batch.clear();
+        }
+    }
+}
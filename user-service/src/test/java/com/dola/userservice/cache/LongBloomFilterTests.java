@@ -0,0 +1,51 @@
+package com.dola.userservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// LongBloomFilter tests
+// ===========================================================================================
+// WHY: HEAD /users/{id} answers 404 straight from the filter - a false negative would
+// reject orders for a real user, and a filter far above its false-positive target
+// would send every miss back to Postgres
+class LongBloomFilterTests {
+
+	@Test
+	void neverForgetsAnAddedId() {
+		LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+
+		for (long id = 1; id <= 100_000; id++) {
+			filter.add(id);
+		}
+
+		for (long id = 1; id <= 100_000; id++) {
+			assertTrue(filter.mightContain(id), "id " + id);
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+		for (long id = 1; id <= 100_000; id++) {
+			filter.add(id);
+		}
+
+		int falsePositives = 0;
+		for (long id = 1_000_001; id <= 1_100_000; id++) {
+			if (filter.mightContain(id)) {
+				falsePositives++;
+			}
+		}
+
+		assertTrue(falsePositives < 1_500, "false positives: " + falsePositives);
+		assertEquals(0.01, filter.expectedFalsePositiveRate(100_000), 0.002);
+	}
+
+	@Test
+	void rejectsImpossibleTargets() {
+		assertThrows(IllegalArgumentException.class, () -> new LongBloomFilter(10, 0));
+		assertThrows(IllegalArgumentException.class, () -> new LongBloomFilter(10, 1));
+	}
+}
@@ -0,0 +1,97 @@
+package com.dola.userservice.cache;
+
+import com.dola.userservice.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// ===========================================================================================
+// UserIdFilter tests
+// ===========================================================================================
+// WHY: a definite "no" from the filter turns into a 404 without asking Postgres - an id
+// created while a rebuild runs, or through another instance after the scan, must never
+// get one, whether or not it is above the highest scanned id
+class UserIdFilterTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final UserIdFilter filter = new UserIdFilter(userRepository, transactionTemplate, true, 1000, 0.01, false);
+
+	UserIdFilterTests() {
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		when(userRepository.count()).thenReturn(4L);
+	}
+
+	@Test
+	void keepsIdsAddedWhileRebuilding() {
+		when(userRepository.streamAllIds()).thenReturn(Stream.of(1L, 2L, 3L, 5L));
+		filter.rebuild();
+
+		// 4 is created through this instance while the next scan streams the table
+		when(userRepository.streamAllIds()).thenReturn(Stream.of(1L, 2L, 3L, 5L)
+				.peek(id -> {
+					if (id == 3L) {
+						filter.add(4L);
+					}
+				}));
+		filter.rebuild();
+
+		assertTrue(filter.mightExist(4L));
+	}
+
+	@Test
+	void idsAboveTheScannedMaximumAreNotDefiniteMisses() {
+		when(userRepository.streamAllIds()).thenReturn(Stream.of(1L, 2L, 3L, 5L));
+		filter.rebuild();
+
+		// Created through another instance after the scan, event not seen yet
+		assertTrue(filter.mightExist(6L));
+		assertTrue(filter.mightExist(1_000_000L));
+	}
+
+	@Test
+	void idsInsertedByAnotherWriterBelowTheScannedMaximumAreNotDefiniteMisses() {
+		when(userRepository.streamAllIds()).thenReturn(Stream.of(1L, 2L, 3L, 5L));
+		filter.rebuild();
+
+		// 4 is inserted through another instance after the scan; no feed reports it
+		assertTrue(filter.mightExist(4L));
+	}
+
+	@Test
+	void trustsMissesOnlyWhileTheFeedIsHealthy() {
+		when(userRepository.streamAllIds()).thenReturn(Stream.of(1L, 2L, 3L, 5L));
+		filter.rebuild();
+		boolean[] healthy = {true};
+		filter.setFeedHealthy(() -> healthy[0]);
+
+		assertFalse(filter.mightExist(4L));
+
+		healthy[0] = false;
+		assertTrue(filter.mightExist(4L));
+	}
+
+	@Test
+	void singleInstanceTrustsMissesWithoutAFeed() {
+		UserIdFilter singleInstance = new UserIdFilter(userRepository, transactionTemplate, true, 1000, 0.01, true);
+		when(userRepository.streamAllIds()).thenReturn(Stream.of(1L, 2L, 3L, 5L));
+		singleInstance.rebuild();
+
+		assertFalse(singleInstance.mightExist(4L));
+		assertTrue(singleInstance.mightExist(6L));
+	}
+
+	@Test
+	void answersBeforeTheFirstBuildAreMaybes() {
+		assertTrue(filter.mightExist(42L));
+		assertEquals(0, filter.getScanStartedAt());
+	}
+}
@@ -0,0 +1,80 @@
+package com.dola.userservice.controllers;
+
+import com.dola.userservice.entities.User;
+import com.dola.userservice.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// GET /users/{id} ETag tests
+// ===========================================================================================
+// WHY: order-service and other callers revalidate with If-None-Match - a 304 for a changed
+// user, or an ETag that does not match the body, would keep them on stale data for good
+@SpringBootTest
+class UserControllerETagTests {
+
+	@Autowired
+	private UserController userController;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void sendsTheVersionAsAStrongETag() {
+		User user = userController.createUser(new User("Ada", "ada@etag.test"));
+
+		ResponseEntity<User> response = get(user.getId(), null, new MockHttpServletResponse());
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("\"0\"", response.getHeaders().getETag());
+		assertEquals("Ada", response.getBody().getName());
+	}
+
+	@Test
+	void answersAMatchingIfNoneMatchWith304() {
+		User user = userController.createUser(new User("Grace", "grace@etag.test"));
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+		ResponseEntity<User> response = get(user.getId(), "\"0\"", servletResponse);
+
+		assertNull(response);
+		assertEquals(304, servletResponse.getStatus());
+		assertEquals("\"0\"", servletResponse.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void reloadsACachedUserOlderThanTheDatabase() {
+		User user = userController.createUser(new User("Alan", "alan@etag.test"));
+		// Puts version 0 in UserCache
+		get(user.getId(), null, new MockHttpServletResponse());
+
+		// Written through another instance: this instance's cache is not invalidated
+		User changed = userRepository.findById(user.getId()).orElseThrow();
+		changed.setName("Alan T.");
+		userRepository.save(changed);
+
+		ResponseEntity<User> response = get(user.getId(), "\"0\"", new MockHttpServletResponse());
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("\"1\"", response.getHeaders().getETag());
+		assertEquals("Alan T.", response.getBody().getName());
+		assertEquals(1, response.getBody().getVersion());
+	}
+
+	private ResponseEntity<User> get(Long id, String ifNoneMatch, MockHttpServletResponse servletResponse) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/" + id);
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return userController.getUser(id, new ServletWebRequest(request, servletResponse));
+	}
+}
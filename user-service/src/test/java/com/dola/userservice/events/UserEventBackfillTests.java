@@ -0,0 +1,54 @@
+package com.dola.userservice.events;
+
+import com.dola.events.UserEvent;
+import com.dola.userservice.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// ===========================================================================================
+// UserEventBackfill tests
+// ===========================================================================================
+// WHY: order-service answers user lookups from user-events - a user missing from the topic
+// costs an HTTP call on every order, a deleted user still on it lets orders through
+class UserEventBackfillTests {
+
+	private final UserEventPublisher publisher = mock(UserEventPublisher.class);
+	private final UserEventBackfill backfill = new UserEventBackfill(mock(UserRepository.class), publisher,
+			mock(TransactionTemplate.class), "localhost:9092", "user-events", 500, 1000);
+
+	@Test
+	void publishesOnlyWhatTheTopicIsMissing() {
+		// Table: 1, 2, 4, 6. Topic: CREATED 1, 3, 4, 5; DELETED 5
+		long[] counts = backfill.reconcile(List.of(1L, 2L, 4L, 6L).iterator(),
+				new long[] {1, 3, 4, 5}, new long[] {5});
+
+		ArgumentCaptor<UserEvent> events = ArgumentCaptor.forClass(UserEvent.class);
+		verify(publisher, times(3)).republish(events.capture());
+		assertEquals(List.of("UserEvent{type=CREATED, userId=2}", "UserEvent{type=DELETED, userId=3}",
+				"UserEvent{type=CREATED, userId=6}"), events.getAllValues().stream().map(UserEvent::toString).toList());
+		assertArrayEquals(new long[] {2, 1}, counts);
+	}
+
+	@Test
+	void backfillsEveryUserOnAnEmptyTopic() {
+		long[] counts = backfill.reconcile(List.of(1L, 2L, 3L).iterator(), new long[0], new long[0]);
+
+		verify(publisher, times(3)).republish(any());
+		assertArrayEquals(new long[] {3, 0}, counts);
+	}
+
+	@Test
+	void deletesCreatedUsersPastTheLastTableId() {
+		long[] counts = backfill.reconcile(List.of(1L).iterator(), new long[] {1, 7, 9}, new long[] {9});
+
+		verify(publisher).republish(argThat(event ->
+				event.getType() == UserEvent.Type.DELETED && event.getUserId() == 7L));
+		assertArrayEquals(new long[] {0, 1}, counts);
+	}
+}
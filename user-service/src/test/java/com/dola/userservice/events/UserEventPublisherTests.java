@@ -0,0 +1,68 @@
+package com.dola.userservice.events;
+
+import com.dola.events.UserEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// ===========================================================================================
+// UserEventPublisher tests
+// ===========================================================================================
+// WHY: a dropped event leaves order-service and the other user-service instances without
+// the user until the next backfill; a late retry must not bring a deleted user back
+@SuppressWarnings("unchecked")
+class UserEventPublisherTests {
+
+	private final KafkaTemplate<String, UserEvent> template = mock(KafkaTemplate.class);
+	private final UserEventPublisher publisher = new UserEventPublisher(template, "user-events", 20, 100, 5);
+
+	@AfterEach
+	void tearDown() {
+		publisher.shutdown();
+	}
+
+	@Test
+	void retriesAFailedSend() {
+		when(template.send(anyString(), anyString(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")))
+				.thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+		publisher.userCreated(7L);
+
+		verify(template, timeout(2_000).times(2)).send(eq("user-events"), eq("7"),
+				argThat(event -> event.getType() == UserEvent.Type.CREATED));
+	}
+
+	@Test
+	void dropsARetrySupersededByANewerEvent() throws InterruptedException {
+		when(template.send(anyString(), anyString(), any())).thenAnswer(invocation ->
+				invocation.<UserEvent>getArgument(2).getType() == UserEvent.Type.CREATED
+						? CompletableFuture.failedFuture(new RuntimeException("broker unavailable"))
+						: CompletableFuture.completedFuture(mock(SendResult.class)));
+
+		publisher.userCreated(7L);
+		publisher.userDeleted(7L);
+		Thread.sleep(200);
+
+		verify(template, times(1)).send(anyString(), anyString(),
+				argThat(event -> event.getType() == UserEvent.Type.CREATED));
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() {
+		when(template.send(anyString(), anyString(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+		publisher.userCreated(7L);
+
+		verify(template, after(1_000).times(5)).send(anyString(), anyString(), any());
+	}
+}
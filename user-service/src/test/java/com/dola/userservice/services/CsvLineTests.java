@@ -0,0 +1,36 @@
+package com.dola.userservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// CsvLine tests
+// ===========================================================================================
+// WHY: partner exports quote names with commas and embedded quotes - a wrong split would
+// import the surname as the email and reject (or worse, accept) the row
+class CsvLineTests {
+
+	@Test
+	void splitsPlainFields() {
+		assertEquals(List.of("Jane Doe", "jane@example.com"), CsvLine.parse("Jane Doe,jane@example.com"));
+	}
+
+	@Test
+	void quotedFieldsKeepCommasAndEscapedQuotes() {
+		assertEquals(List.of("Doe, Jane \"JD\"", "jane@example.com"),
+				CsvLine.parse("\"Doe, Jane \"\"JD\"\"\",jane@example.com"));
+	}
+
+	@Test
+	void emptyFieldsArePreserved() {
+		assertEquals(List.of("", "jane@example.com", ""), CsvLine.parse(",jane@example.com,"));
+	}
+
+	@Test
+	void unterminatedQuoteIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> CsvLine.parse("\"Jane,jane@example.com"));
+	}
+}
@@ -0,0 +1,99 @@
+package com.dola.userservice.services;
+
+import com.dola.userservice.dto.ImportSummary;
+import com.dola.userservice.entities.User;
+import com.dola.userservice.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ===========================================================================================
+// UserImportService tests
+// ===========================================================================================
+// WHY: imports can be millions of lines - every batch has to leave the persistence context
+// empty (open-in-view keeps one per request), and only a duplicate email may be counted as
+// a duplicate; rows the columns cannot hold are rejected, not left to fail a whole batch
+@SpringBootTest(properties = "user.import.batch-size=3")
+class UserImportServiceTests {
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void importsSeveralBatchesAndSkipsDuplicates() throws Exception {
+		userRepository.save(new User("Existing", "existing@import.test"));
+		StringBuilder body = new StringBuilder();
+		for (int i = 1; i <= 7; i++) {
+			body.append("{\"name\": \"User ").append(i).append("\", \"email\": \"user").append(i).append("@import.test\"}\n");
+		}
+		body.append("{\"name\": \"Again\", \"email\": \"user1@import.test\"}\n");
+		body.append("{\"name\": \"Existing\", \"email\": \"existing@import.test\"}\n");
+
+		ImportSummary summary = userImportService.importNdjson(new StringReader(body.toString()));
+
+		assertEquals(7, summary.getImported());
+		assertEquals(2, summary.getDuplicates());
+		assertEquals(7, userRepository.findExistingEmails(List.of(
+				"user1@import.test", "user2@import.test", "user3@import.test", "user4@import.test",
+				"user5@import.test", "user6@import.test", "user7@import.test")).size());
+	}
+
+	@Test
+	void leavesTheRequestPersistenceContextEmpty() throws Exception {
+		// As OpenEntityManagerInViewInterceptor does for POST /users/import
+		EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+		try {
+			StringBuilder body = new StringBuilder("name,email\n");
+			for (int i = 1; i <= 10; i++) {
+				body.append("Bulk ").append(i).append(",bulk").append(i).append("@import.test\n");
+			}
+
+			ImportSummary summary = userImportService.importCsv(new StringReader(body.toString()));
+
+			assertEquals(10, summary.getImported());
+			assertEquals(0, requestEntityManager.unwrap(Session.class).getStatistics().getEntityCount());
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			requestEntityManager.close();
+		}
+	}
+
+	@Test
+	void rejectsFieldsLongerThanTheColumns() throws Exception {
+		String longName = "n".repeat(User.MAX_LENGTH + 1);
+		String longEmail = "e".repeat(User.MAX_LENGTH) + "@import.test";
+		String body = longName + ",long-name@import.test\n"
+				+ "Long email," + longEmail + "\n"
+				+ "Fits,fits@import.test\n";
+
+		ImportSummary summary = userImportService.importCsv(new StringReader(body));
+
+		assertEquals(1, summary.getImported());
+		assertEquals(2, summary.getInvalid());
+		assertTrue(userRepository.findExistingEmails(List.of("long-name@import.test")).isEmpty());
+	}
+
+	@Test
+	void onlyTheEmailIndexCountsAsDuplicate() {
+		assertFalse(UserImportService.isDuplicateEmail(new DataIntegrityViolationException("value too long")));
+		assertFalse(UserImportService.isDuplicateEmail(new IllegalStateException("uk_users_email")));
+	}
+}